@@ -0,0 +1,37 @@
+#!/usr/bin/env bash
+# Runs the OTP login flow load test on Java 21 twice, once on platform
+# threads and once on virtual threads, and prints the two reports side by side.
+#
+# Usage: scripts/compare-threading.sh [users] [db-pool-size]
+# Extra Maven arguments can be passed in MAVEN_ARGS.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+USERS="${1:-2000}"
+POOL="${2:-20}"
+OUT=target/perf
+
+run() {
+  local mode="$1" profiles="$2"
+  # Budget failures are ignored: the report is written before budgets are checked
+  ./mvnw -B -q -Pperf,java21 test \
+    -Dspring.profiles.active="$profiles" \
+    -Dspring.datasource.hikari.maximum-pool-size="$POOL" \
+    -Dperf.users="$USERS" \
+    -Dperf.budget.error-rate=1 \
+    -Dperf.report-file="$OUT/$mode.txt" \
+    ${MAVEN_ARGS:-} || true
+  if [[ ! -s "$OUT/$mode.txt" ]]; then
+    echo "No report from the $mode run" >&2
+    exit 1
+  fi
+}
+
+rm -rf "$OUT"
+run platform default
+run virtual virtual-threads
+
+echo
+echo "Platform threads vs virtual threads, $USERS users, DB pool $POOL"
+paste "$OUT/platform.txt" "$OUT/virtual.txt" | expand -t 90
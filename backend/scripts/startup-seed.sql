@@ -0,0 +1,3 @@
+-- The user the default probe of startup-time.sh requests an OTP for. Loaded by
+-- Hibernate after it creates the schema (hibernate.hbm2ddl.import_files).
+INSERT INTO User_Data (User_Name, User_Email, User_Role, Department, Created_At, Updated_At) VALUES ('Startup Probe', 'startup-probe@crm.test', 'Executive', 'Operations', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
@@ -0,0 +1,102 @@
+#!/usr/bin/env bash
+# Measures time to first successful request of the packaged application in
+# three modes and writes the results to target/startup-time.json:
+#   default  plain JVM, eager Spring context
+#   cds      plus the AppCDS archive
+#   startup  plus AOT-processed beans and the startup Spring profile
+#
+# Build first with: mvn -Pstartup -DskipTests package
+# The script runs its own CDS training run with exactly the classpath and
+# arguments it measures with, because an archive only applies to the
+# classpath it was dumped from.
+#
+# The default probe requests an OTP for a seeded user, so the measured time
+# includes the first repository call and therefore any Hibernate bootstrap the
+# startup mode defers. scripts/startup-seed.sql seeds that user on a schema
+# Hibernate creates; mail only needs a host, since delivery happens after the
+# response.
+#
+# Usage: scripts/startup-time.sh [runs]
+# Environment:
+#   APP_ARGS           arguments for the application, e.g. the datasource
+#   EXTRA_CLASSPATH    appended to the classpath, e.g. a different JDBC driver
+#   PORT               HTTP port (default 18080)
+#   FIRST_REQUEST_PATH path that must answer 2xx (default /api/v1/auth/otp/generate)
+#   FIRST_REQUEST_BODY JSON posted to that path; empty sends a GET instead
+#                      (default an OTP request for startup-probe@crm.test)
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+URL="http://localhost:$PORT${FIRST_REQUEST_PATH:-/api/v1/auth/otp/generate}"
+PROBE_BODY='{"email": "startup-probe@crm.test", "role": "Executive"}'
+BODY="${FIRST_REQUEST_BODY-$PROBE_BODY}"
+MAIN=com.crm.backend.CrmBackendApplication
+OUT=target/startup-time
+RESULT=target/startup-time.json
+
+JAR=$(ls target/startup/backend-*.jar 2>/dev/null | head -n 1 || true)
+if [[ -z "$JAR" ]]; then
+  echo "No extracted jar in target/startup; run mvn -Pstartup -DskipTests package first" >&2
+  exit 1
+fi
+CP="$JAR${EXTRA_CLASSPATH:+:$EXTRA_CLASSPATH}"
+read -r -a APP <<< "${APP_ARGS:-}"
+APP+=("--server.port=$PORT")
+REQUEST=()
+if [[ -n "$BODY" ]]; then
+  REQUEST=(-H "Content-Type: application/json" --data "$BODY")
+fi
+
+mode_flags() {
+  case "$1" in
+    default) ;;
+    cds)     echo "-XX:SharedArchiveFile=$OUT/application.jsa -Xlog:cds=off -Xlog:cds+dynamic=off" ;;
+    startup) echo "-XX:SharedArchiveFile=$OUT/application.jsa -Xlog:cds=off -Xlog:cds+dynamic=off -Dspring.aot.enabled=true -Dspring.profiles.active=startup" ;;
+  esac
+}
+
+# Prints the milliseconds from launch until $URL answers 2xx
+measure() {
+  local mode="$1" run="$2" start end pid
+  # shellcheck disable=SC2046
+  start=$(date +%s%N)
+  java $(mode_flags "$mode") -cp "$CP" "$MAIN" "${APP[@]}" > "$OUT/$mode-$run.log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "${REQUEST[@]}" "$URL"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "The $mode run exited before serving $URL, see $OUT/$mode-$run.log" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  end=$(date +%s%N)
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo $(( (end - start) / 1000000 ))
+}
+
+rm -rf "$OUT"
+mkdir -p "$OUT"
+
+echo "Training run for the CDS archive"
+java -XX:ArchiveClassesAtExit="$OUT/application.jsa" -Xlog:cds=off -Xlog:cds+dynamic=off \
+  -Dspring.aot.enabled=true -Dspring.profiles.active=startup -Dspring.context.exit=onRefresh \
+  -cp "$CP" "$MAIN" "${APP[@]}" > "$OUT/training.log" 2>&1
+
+json="{\"url\": \"$URL\", \"runs\": $RUNS, \"results\": {"
+separator=""
+for mode in default cds startup; do
+  samples=()
+  for run in $(seq 1 "$RUNS"); do
+    samples+=("$(measure "$mode" "$run")")
+  done
+  median=$(printf '%s\n' "${samples[@]}" | sort -n | awk '{ a[NR] = $1 } END { print a[int((NR + 1) / 2)] }')
+  printf '%-8s median %6s ms   runs: %s\n' "$mode" "$median" "${samples[*]}"
+  json+="$separator\"$mode\": {\"median_ms\": $median, \"samples_ms\": [$(IFS=,; echo "${samples[*]}")]}"
+  separator=", "
+done
+echo "$json}}" > "$RESULT"
+echo "Results written to $RESULT"
@@ -0,0 +1,35 @@
+package com.crm.backend.controllers;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the OTP digit loop on the shared {@code SecureRandom}, including
+ * contention when every core draws codes at once.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OtpCodeBenchmark {
+
+    @Benchmark
+    public String generateOtp() {
+        return OtpGen.generateOtp(6);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generateOtpAllCores() {
+        return OtpGen.generateOtp(6);
+    }
+}
@@ -0,0 +1,83 @@
+package com.crm.backend.services;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.crm.backend.dto.TokenClaims;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Per-request cost of authenticating a bearer token: the original filter
+ * path (three parser builds and three signature checks) against a single
+ * parse on a shared parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private Key key;
+    private String token;
+    private JwtParser sharedParser;
+    private JwtService jwtService;
+    private String serviceToken;
+
+    @Setup
+    public void setup() {
+        key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        token = Jwts.builder()
+                .setSubject("user@crm.test")
+                .claim("role", "Sales Manager")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(15)))
+                .signWith(key)
+                .compact();
+        sharedParser = Jwts.parserBuilder().setSigningKey(key).build();
+
+        jwtService = new JwtService(JwtKeyRing.ephemeral(), new SimpleMeterRegistry());
+        serviceToken = jwtService.generateAccessToken("user@crm.test", Role.SALES_MANAGER);
+    }
+
+    @Benchmark
+    public void threeParsesPerRequest(Blackhole bh) {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        bh.consume(Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().getSubject());
+        bh.consume(Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().get("role", String.class));
+    }
+
+    @Benchmark
+    public void singleParseSharedParser(Blackhole bh) {
+        Claims claims = sharedParser.parseClaimsJws(token).getBody();
+        bh.consume(claims.getSubject());
+        bh.consume(claims.get("role", String.class));
+    }
+
+    @Benchmark
+    public TokenClaims jwtServiceVerify() {
+        return jwtService.verify(serviceToken);
+    }
+}
@@ -0,0 +1,66 @@
+package com.crm.backend.services;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Token issue and validation throughput of {@link JwtService}, single
+ * threaded and with one thread per core.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private String accessToken;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService(JwtKeyRing.ephemeral(), new SimpleMeterRegistry());
+        accessToken = jwtService.generateAccessToken("user@crm.test", Role.SALES_MANAGER);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken("user@crm.test", Role.SALES_MANAGER);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateRefreshToken("user@crm.test", Role.SALES_MANAGER, "bench-family", 0);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(accessToken);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generateAccessTokenAllCores() {
+        return jwtService.generateAccessToken("user@crm.test", Role.SALES_MANAGER);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean validateTokenAllCores() {
+        return jwtService.validateToken(accessToken);
+    }
+}
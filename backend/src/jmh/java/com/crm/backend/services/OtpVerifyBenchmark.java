@@ -0,0 +1,106 @@
+package com.crm.backend.services;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.crm.backend.CrmBackendApplication;
+
+/**
+ * {@link OtpService#verifyOtp} end to end through Spring, JPA and an
+ * embedded H2 database, for each {@link OtpStore} backend. Every invocation
+ * verifies a freshly issued code so the successful (consuming) path is
+ * measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OtpVerifyBenchmark {
+
+    private static final String ROLE = "Sales Manager";
+
+    @State(Scope.Benchmark)
+    public static class Application {
+
+        @Param({ "jpa", "memory" })
+        public String store;
+
+        ConfigurableApplicationContext context;
+        OtpService otpService;
+        OtpStore otpStore;
+        final AtomicInteger threadIds = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = new SpringApplicationBuilder(CrmBackendApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties(
+                            "spring.datasource.url=jdbc:h2:mem:otp-bench;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                            "spring.jpa.hibernate.ddl-auto=create-drop",
+                            "spring.mail.host=localhost",
+                            "logging.level.root=WARN",
+                            "crm.otp.store=" + store)
+                    .run();
+            otpService = context.getBean(OtpService.class);
+            otpStore = context.getBean(OtpStore.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Code {
+
+        String email;
+        String otp;
+        private String prefix;
+        private long sequence;
+
+        @Setup(Level.Trial)
+        public void init(Application app) {
+            prefix = "bench-" + app.threadIds.incrementAndGet() + "-";
+        }
+
+        @Setup(Level.Invocation)
+        public void issue(Application app) {
+            email = prefix + (sequence++) + "@crm.test";
+            long value = 100000 + (sequence % 900000);
+            otp = Long.toString(value);
+            app.otpStore.save(email, ROLE, value, LocalDateTime.now());
+        }
+    }
+
+    @Benchmark
+    public boolean verifyOtp(Application app, Code code) {
+        return app.otpService.verifyOtp(code.email, code.otp, ROLE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean verifyOtpFourThreads(Application app, Code code) {
+        return app.otpService.verifyOtp(code.email, code.otp, ROLE);
+    }
+}
@@ -0,0 +1,155 @@
+package com.crm.backend.services;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.crm.backend.CrmBackendApplication;
+import com.crm.backend.dto.UserPage;
+import com.crm.backend.dto.UserSummary;
+import com.crm.backend.repository.UserRepo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Reading page N of the user listing with keyset pagination against the
+ * same page read with {@code OFFSET}, unfiltered and filtered by department.
+ * Both run the listing's JPQL projection through a plain EntityManager;
+ * {@code listing} adds the cost of the full {@link UserListingService} call.
+ *
+ * Embedded H2 keeps row counts in its B-tree pages and reaches any offset in
+ * logarithmic time, so it does not show the linear OFFSET cost of InnoDB.
+ * Pass {@code -Dbench.datasource.url}, {@code .username} and
+ * {@code .password} to run against a scratch MySQL schema (its
+ * {@code User_Data} table is dropped and recreated).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserPaginationBenchmark {
+
+    private static final int ROWS = 200_000;
+    private static final int PAGE_SIZE = 50;
+    private static final String[] DEPARTMENTS = { "Sales", "Support", "Marketing", "Finance" };
+
+    @Param({ "1", "100", "1000" })
+    public int page;
+
+    @Param({ "", "Sales" })
+    public String department;
+
+    private ConfigurableApplicationContext context;
+    private UserListingService listingService;
+    private EntityManagerFactory entityManagerFactory;
+    private String filter;
+    private String cursor;
+    private long afterId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(CrmBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + System.getProperty("bench.datasource.url",
+                                "jdbc:h2:mem:user-page-bench;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"),
+                        "spring.datasource.username=" + System.getProperty("bench.datasource.username", "sa"),
+                        "spring.datasource.password=" + System.getProperty("bench.datasource.password", ""),
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.mail.host=localhost",
+                        "logging.level.root=WARN")
+                .run();
+        listingService = context.getBean(UserListingService.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[] { "User " + i, "user" + i + "@crm.test", "Executive",
+                    DEPARTMENTS[i % DEPARTMENTS.length], now, now });
+            if (rows.size() == 5_000) {
+                insert(jdbcTemplate, rows);
+            }
+        }
+        insert(jdbcTemplate, rows);
+
+        // The position a client would hold after reading page - 1 pages
+        filter = department.isEmpty() ? null : department;
+        for (int p = 1; p < page; p++) {
+            UserPage previous = listingService.list(null, filter, cursor, PAGE_SIZE);
+            cursor = previous.nextCursor();
+            afterId = previous.users().get(previous.users().size() - 1).userId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserSummary> keyset() {
+        String where = filter == null ? "WHERE " : "WHERE u.Department = :department AND ";
+        return query(where + "u.userId > :afterId ORDER BY u.userId", 0, true);
+    }
+
+    @Benchmark
+    public List<UserSummary> offset() {
+        String where = filter == null ? "" : "WHERE u.Department = :department ";
+        return query(where + "ORDER BY u.userId", (page - 1) * PAGE_SIZE, false);
+    }
+
+    @Benchmark
+    public UserPage listing() {
+        return listingService.list(null, filter, cursor, PAGE_SIZE);
+    }
+
+    private List<UserSummary> query(String clauses, int firstResult, boolean seek) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            TypedQuery<UserSummary> query = entityManager.createQuery(UserRepo.SUMMARY + clauses, UserSummary.class)
+                    .setFirstResult(firstResult)
+                    .setMaxResults(PAGE_SIZE + 1);
+            if (filter != null) {
+                query.setParameter("department", filter);
+            }
+            if (seek) {
+                query.setParameter("afterId", afterId);
+            }
+            return query.getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO user_data "
+                + "(user_name, user_email, user_role, department, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)",
+                rows);
+        rows.clear();
+    }
+}
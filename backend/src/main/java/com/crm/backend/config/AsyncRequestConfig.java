@@ -0,0 +1,28 @@
+package com.crm.backend.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Timeout of async requests. Streamed responses such as the user export
+ * run as async requests, and the container default (30 seconds on Tomcat)
+ * would cut a large export off halfway.
+ */
+@Configuration
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+    private final Duration timeout;
+
+    public AsyncRequestConfig(@Value("${spring.mvc.async.request-timeout:PT1H}") Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(timeout.toMillis());
+    }
+}
@@ -0,0 +1,46 @@
+package com.crm.backend.config;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+
+/**
+ * Bounded store of parsed and validated persisted queries, keyed by their
+ * SHA-256 hash. A client sends only the hash; the full query is needed once
+ * per node, after which the parsed document is reused.
+ */
+class CaffeinePersistedQueryCache implements PersistedQueryCache {
+
+    private final Cache<Object, PreparsedDocumentEntry> documents;
+
+    CaffeinePersistedQueryCache(long maxSize) {
+        this.documents = Caffeine.newBuilder().maximumSize(maxSize).build();
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getPersistedQueryDocumentAsync(Object persistedQueryId,
+            ExecutionInput executionInput, PersistedQueryCacheMiss onCacheMiss) throws PersistedQueryNotFound {
+        PreparsedDocumentEntry entry = documents.getIfPresent(persistedQueryId);
+        if (entry != null) {
+            return CompletableFuture.completedFuture(entry);
+        }
+        String query = executionInput.getQuery();
+        if (query == null || query.isBlank() || PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query)) {
+            // Tells the client to retry with the full query text
+            throw new PersistedQueryNotFound(persistedQueryId);
+        }
+        entry = onCacheMiss.apply(query);
+        if (!entry.hasErrors()) {
+            documents.put(persistedQueryId, entry);
+        }
+        return CompletableFuture.completedFuture(entry);
+    }
+}
@@ -0,0 +1,51 @@
+package com.crm.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+
+/**
+ * Limits on GraphQL queries and support for persisted queries.
+ *
+ * Queries deeper than {@code crm.graphql.max-depth} or costlier than
+ * {@code crm.graphql.max-complexity} are rejected before they run. Every
+ * field costs one, and a field with a {@code limit} argument costs its
+ * selection once per row it may return. Persisted queries follow the
+ * Apollo protocol ({@code extensions.persistedQuery.sha256Hash}); up to
+ * {@code crm.graphql.persisted-queries.max-size} parsed documents are kept.
+ */
+@Configuration
+public class GraphQlConfig {
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(
+            @Value("${crm.graphql.max-depth:6}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(
+            @Value("${crm.graphql.max-complexity:5000}") int maxComplexity) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity, GraphQlConfig::fieldComplexity);
+    }
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer persistedQueries(
+            @Value("${crm.graphql.persisted-queries.max-size:10000}") long maxSize) {
+        ApolloPersistedQuerySupport persistedQuerySupport =
+                new ApolloPersistedQuerySupport(new CaffeinePersistedQueryCache(maxSize));
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(persistedQuerySupport));
+    }
+
+    static int fieldComplexity(FieldComplexityEnvironment environment, int childComplexity) {
+        Object limit = environment.getArguments().get("limit");
+        long rows = limit instanceof Integer value ? Math.max(1, value) : 1;
+        return (int) Math.min(Integer.MAX_VALUE, 1 + rows * childComplexity);
+    }
+}
@@ -0,0 +1,42 @@
+package com.crm.backend.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import com.crm.backend.services.OtpMailDispatcher;
+import com.crm.backend.services.OtpMailOutboxService;
+import com.crm.backend.services.OtpStore;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Metrics exposure and gauges that do not belong to a single component.
+ * Timers and counters are registered by the components that record them.
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+
+    /**
+     * OTP emails wait in the outbox table with the database store and in the
+     * dispatcher's queue with the in-memory one; the depth gauge follows
+     * whichever is in use.
+     */
+    @Bean
+    public MeterBinder otpGauges(OtpStore otpStore, OtpMailDispatcher otpMailDispatcher,
+            ObjectProvider<OtpMailOutboxService> otpMailOutbox) {
+        return registry -> {
+            Gauge.builder("otp.store.size", otpStore, OtpStore::size)
+                    .description("OTPs currently held by the OTP store")
+                    .register(registry);
+            OtpMailOutboxService outbox = otpMailOutbox.getIfAvailable();
+            Gauge.Builder<?> queueDepth = outbox != null
+                    ? Gauge.builder("otp.mail.queue.depth", outbox, OtpMailOutboxService::getPendingCount)
+                    : Gauge.builder("otp.mail.queue.depth", otpMailDispatcher, OtpMailDispatcher::getQueueDepth);
+            queueDepth.description("OTP emails waiting to be sent").register(registry);
+        };
+    }
+}
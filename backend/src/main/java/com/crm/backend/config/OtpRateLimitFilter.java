@@ -0,0 +1,55 @@
+package com.crm.backend.config;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.crm.backend.services.OtpRateLimiter;
+import com.crm.backend.services.OtpRateLimiter.Endpoint;
+import com.crm.backend.services.RateLimitExceededException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Applies the per-IP budget of {@link OtpRateLimiter} to the OTP endpoints
+ * before the request body is parsed or anything else runs.
+ */
+@Component
+public class OtpRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String GENERATE_PATH = "/api/v1/auth/otp/generate";
+    private static final String VERIFY_PATH = "/api/v1/auth/otp/verify";
+
+    @Autowired
+    private OtpRateLimiter otpRateLimiter;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest req) {
+        String path = req.getRequestURI();
+        return !path.equals(GENERATE_PATH) && !path.equals(VERIFY_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        Endpoint endpoint = req.getRequestURI().equals(GENERATE_PATH) ? Endpoint.GENERATE : Endpoint.VERIFY;
+        try {
+            otpRateLimiter.checkIp(endpoint, req.getRemoteAddr());
+        } catch (RateLimitExceededException e) {
+            res.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            res.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()));
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getWriter().write("{\"status\":\"error\",\"message\":\"" + e.getMessage() + "\"}");
+            return;
+        }
+        chain.doFilter(req, res);
+    }
+}
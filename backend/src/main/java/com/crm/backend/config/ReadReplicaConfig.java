@@ -0,0 +1,83 @@
+package com.crm.backend.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sends read-only transactions to read replicas when
+ * {@code crm.datasource.replicas} lists their JDBC URLs.
+ *
+ * The application data source is a {@link LazyConnectionDataSourceProxy}
+ * over the primary pool. It takes the physical connection only when the
+ * first statement runs, by which time the transaction manager has marked
+ * the connection read-only for {@code @Transactional(readOnly = true)}
+ * work, so those connections come from {@link ReplicaDataSource} and every
+ * other one from the primary. Spring Data repository finders are read-only
+ * transactions by default; writes and anything inside a read-write
+ * transaction stay on the primary.
+ *
+ * Replicas reuse the primary's driver and credentials unless
+ * {@code crm.datasource.replica.username}/{@code .password} are set.
+ */
+@Configuration
+@ConditionalOnProperty(name = "crm.datasource.replicas")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(DataSourceProperties properties, HikariDataSource primaryDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${crm.datasource.replicas}") String replicaUrls,
+            @Value("${crm.datasource.replica.username:}") String username,
+            @Value("${crm.datasource.replica.password:}") String password,
+            @Value("${crm.datasource.replica.pool-size:10}") int poolSize,
+            @Value("${crm.datasource.replica.lag-query:}") String lagQuery,
+            @Value("${crm.datasource.replica.max-lag-seconds:5}") long maxLagSeconds,
+            @Value("${crm.datasource.replica.read-your-writes-ms:2000}") long readYourWritesMillis) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        String[] urls = StringUtils.commaDelimitedListToStringArray(replicaUrls);
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls[i].trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(StringUtils.hasText(username) ? username : properties.determineUsername());
+            replica.setPassword(StringUtils.hasText(username) ? password : properties.determinePassword());
+            replica.setMaximumPoolSize(poolSize);
+            replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, lagQuery, maxLagSeconds, readYourWritesMillis,
+                meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
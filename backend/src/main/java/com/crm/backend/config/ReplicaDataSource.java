@@ -0,0 +1,201 @@
+package com.crm.backend.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-only side of the routed data source: hands out connections to a
+ * healthy replica, round robin, and falls back to the primary when no
+ * replica can serve the read.
+ *
+ * Every {@code crm.datasource.replica.health-check-ms} each replica is
+ * pinged and, if {@code crm.datasource.replica.lag-query} is set, asked for
+ * its replication lag. A replica that cannot be reached or lags more than
+ * {@code crm.datasource.replica.max-lag-seconds} is skipped until a later
+ * check passes; a replica that fails to hand out a connection is skipped at
+ * once. After a thread commits a read-write transaction its reads stay on
+ * the primary for {@code crm.datasource.replica.read-your-writes-ms}, so a
+ * request never reads a replica that has not caught up with its own write.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements TransactionExecutionListener, AutoCloseable {
+
+    private static final ThreadLocal<long[]> PINNED_UNTIL = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final long readYourWritesNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter fallbackReads;
+    private final Counter pinnedReads;
+
+    public ReplicaDataSource(DataSource primary, List<HikariDataSource> replicas, String lagQuery,
+            long maxLagSeconds, long readYourWritesMillis, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.lagQuery = StringUtils.hasText(lagQuery) ? lagQuery : null;
+        this.maxLagSeconds = maxLagSeconds;
+        this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesMillis);
+        this.replicaReads = readCounter(meterRegistry, "replica");
+        this.fallbackReads = readCounter(meterRegistry, "primary_fallback");
+        this.pinnedReads = readCounter(meterRegistry, "primary_pinned");
+        Gauge.builder("db.replicas.healthy", this.replicas, list -> list.stream().filter(r -> r.healthy).count())
+                .description("Read replicas currently receiving reads")
+                .register(meterRegistry);
+        checkReplicas();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (System.nanoTime() - PINNED_UNTIL.get()[0] < 0) {
+            pinnedReads.increment();
+            return primary.getConnection();
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.healthy = false;
+                log.warn("Read replica {} is unavailable, skipping it until the next health check: {}",
+                        replica.name(), e.getMessage());
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+    }
+
+    /**
+     * Keeps the committing thread's reads on the primary for a while after
+     * a read-write transaction.
+     */
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            PINNED_UNTIL.get()[0] = System.nanoTime() + readYourWritesNanos;
+        }
+    }
+
+    /**
+     * Pings every replica and measures its lag, taking replicas in or out
+     * of the read rotation.
+     */
+    @Scheduled(fixedDelayString = "${crm.datasource.replica.health-check-ms:5000}",
+            initialDelayString = "${crm.datasource.replica.health-check-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy = isHealthy(replica);
+            if (healthy != replica.healthy) {
+                log.info("Read replica {} is now {}", replica.name(), healthy ? "in rotation" : "out of rotation");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private boolean isHealthy(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (lagQuery == null) {
+                return connection.isValid(2);
+            }
+            long lag = lagSeconds(connection);
+            if (lag > maxLagSeconds) {
+                log.debug("Read replica {} lags {} s", replica.name(), lag);
+                return false;
+            }
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            log.debug("Read replica {} failed its health check", replica.name(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Reads the lag from the first column of the lag query, or from the
+     * {@code Seconds_Behind_Source} column when the query is MySQL's
+     * {@code SHOW REPLICA STATUS}. A replica that reports no lag (replication
+     * stopped) counts as infinitely behind.
+     */
+    private long lagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                return Long.MAX_VALUE;
+            }
+            int column = 1;
+            ResultSetMetaData metaData = rs.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                String label = metaData.getColumnLabel(i);
+                if ("Seconds_Behind_Source".equalsIgnoreCase(label) || "Seconds_Behind_Master".equalsIgnoreCase(label)) {
+                    column = i;
+                }
+            }
+            long lag = rs.getLong(column);
+            return rs.wasNull() ? Long.MAX_VALUE : lag;
+        }
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("db.read.route")
+                .description("Read-only connections by the database that served them")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        String name() {
+            return dataSource.getPoolName();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.crm.backend.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.web.util.UrlPathHelper;
+
+import com.crm.backend.services.Role;
+
+/**
+ * Path-prefix authorization table checked with role bit masks.
+ *
+ * Each rule maps a path prefix to the set of {@link Role}s allowed under it,
+ * stored as a mask. Rules are sorted longest prefix first and the first
+ * match decides; paths no rule covers only need an authenticated user.
+ * Rules match the decoded path within the application, the one Spring MVC
+ * routes on, so percent-encoding or a context path cannot slip past them. A
+ * check is a scan of a few prefixes and one {@code &}, and allocates
+ * nothing: the decisions are shared constants.
+ */
+public final class RoleAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+    private static final UrlPathHelper URL_PATH_HELPER = UrlPathHelper.defaultInstance;
+
+    private final String[] prefixes;
+    private final int[] masks;
+
+    private RoleAuthorizationManager(List<Rule> rules) {
+        List<Rule> sorted = new ArrayList<>(rules);
+        sorted.sort(Comparator.comparingInt((Rule rule) -> rule.prefix().length()).reversed());
+        this.prefixes = new String[sorted.size()];
+        this.masks = new int[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            prefixes[i] = sorted.get(i).prefix();
+            masks[i] = sorted.get(i).mask();
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        Authentication auth = authentication.get();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return DENIED;
+        }
+        // Decoded and without the context path, as Spring MVC routes it; the raw URI would let %75sers past /users
+        String path = URL_PATH_HELPER.getPathWithinApplication(context.getRequest());
+        for (int i = 0; i < prefixes.length; i++) {
+            if (matches(path, prefixes[i])) {
+                return (roleMask(auth.getAuthorities()) & masks[i]) != 0 ? GRANTED : DENIED;
+            }
+        }
+        return GRANTED;
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    /**
+     * True if the path is the prefix itself or lies below it.
+     */
+    private static boolean matches(String path, String prefix) {
+        return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+    }
+
+    private static int roleMask(Collection<? extends GrantedAuthority> authorities) {
+        // Indexed access: no iterator for the usual single-role list
+        if (authorities instanceof List<? extends GrantedAuthority> list) {
+            int mask = 0;
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i) instanceof Role role) {
+                    mask |= role.bit();
+                }
+            }
+            return mask;
+        }
+        int mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            if (authority instanceof Role role) {
+                mask |= role.bit();
+            }
+        }
+        return mask;
+    }
+
+    private record Rule(String prefix, int mask) {
+    }
+
+    public static final class Builder {
+
+        private final List<Rule> rules = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Allows only the given roles at {@code prefix} and below it.
+         *
+         * @param prefix Path prefix without trailing slash, e.g. {@code /api/v1/users}
+         * @param roles Roles allowed
+         */
+        public Builder allow(String prefix, Role... roles) {
+            rules.add(new Rule(prefix, Role.mask(roles)));
+            return this;
+        }
+
+        public RoleAuthorizationManager build() {
+            return new RoleAuthorizationManager(rules);
+        }
+    }
+}
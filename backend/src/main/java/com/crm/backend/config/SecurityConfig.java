@@ -1,43 +1,118 @@
 package com.crm.backend.config;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.crm.backend.services.Role;
+
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
+
+    @Autowired
+    private JwtAuthFilter jwtAuthFilter;
+
+    @Autowired
+    private OtpRateLimitFilter otpRateLimitFilter;
+
+    // Addresses or CIDR ranges the Prometheus scraper connects from
+    @Value("${crm.metrics.scrape-addresses:127.0.0.1/32,::1/128}")
+    private String scrapeAddresses;
+
        @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            // ✅ Authenticate the bearer token before the authorization rules below are checked
+            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            // ✅ Shed OTP floods per client IP before anything else looks at the request
+            .addFilterBefore(otpRateLimitFilter, JwtAuthFilter.class)
         .authorizeHttpRequests(auth -> auth
+            // ✅ Error pages render for whoever triggered them
+            .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
+
+            // ✅ Streamed responses were authorized on their original dispatch
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
             // ✅ Public OTP endpoints
             .requestMatchers("/api/v1/auth/otp/**").permitAll()
+            .requestMatchers("/api/v1/auth/token/refresh").permitAll()
 
-            // ✅ Example: Only `administrator` can access user management
-            .requestMatchers("/api/v1/users/**").hasAuthority("administrator")
+            // ✅ Token introspection: callers are services with client credentials, checked by TokenIntrospector
+            .requestMatchers("/api/v1/auth/token/introspect").permitAll()
 
-            // ✅ Example: Only Sales Manager or Representative can access leads
-            .requestMatchers("/api/v1/sales/**").hasAnyAuthority("Sales Manager", "Sales Representative")
+            // ✅ Health checks for anyone, metrics only for the scraper's network
+            .requestMatchers("/actuator/health").permitAll()
+            .requestMatchers("/actuator/prometheus").access(scrapeAccess())
 
-            // ✅ Example: Only Marketing Professionals
-            .requestMatchers("/api/v1/marketing/**").hasAuthority("Marketing Professional")
+            // ✅ Public verification keys for other services
+            .requestMatchers("/.well-known/jwks.json").permitAll()
 
-            // ✅ Example: Only finance officers
-            .requestMatchers("/api/v1/finance/**").hasAuthority("finance_officer")
-
-            // ✅ All other endpoints require login
-            .anyRequest().authenticated()
+            // ✅ Role-restricted areas (see roleAuthorizationManager); everything else just requires login
+            .anyRequest().access(roleAuthorizationManager())
         );
 
         return http.build();
     }
 
+    // ✅ Which roles may use which path prefix, checked as one bit mask per request
+    @Bean
+    public RoleAuthorizationManager roleAuthorizationManager() {
+        return RoleAuthorizationManager.builder()
+            // user management and the GraphQL API over the same data
+            .allow("/api/v1/users", Role.ADMINISTRATOR)
+            .allow("/graphql", Role.ADMINISTRATOR)
+            .allow("/api/v1/sales", Role.SALES_MANAGER, Role.SALES_REPRESENTATIVE)
+            .allow("/api/v1/marketing", Role.MARKETING_PROFESSIONAL)
+            .allow("/api/v1/finance", Role.FINANCE_OFFICER)
+            .build();
+    }
+
+    // ✅ Metrics reveal traffic and user counts, so only listed networks may scrape them
+    private AuthorizationManager<RequestAuthorizationContext> scrapeAccess() {
+        List<IpAddressMatcher> allowed = new ArrayList<>();
+        for (String address : StringUtils.commaDelimitedListToStringArray(scrapeAddresses)) {
+            allowed.add(new IpAddressMatcher(address.trim()));
+        }
+        return (authentication, context) -> new AuthorizationDecision(
+            allowed.stream().anyMatch(matcher -> matcher.matches(context.getRequest())));
+    }
+
+    // ✅ JwtAuthFilter and OtpRateLimitFilter run inside the security chain only, not a second time as a plain servlet filter
+    @Bean
+    public FilterRegistrationBean<JwtAuthFilter> jwtAuthFilterRegistration(JwtAuthFilter filter) {
+        FilterRegistrationBean<JwtAuthFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<OtpRateLimitFilter> otpRateLimitFilterRegistration(OtpRateLimitFilter filter) {
+        FilterRegistrationBean<OtpRateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
 
 
     @Bean
@@ -0,0 +1,194 @@
+package com.crm.backend.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.crm.backend.dto.TokenClaims;
+import com.crm.backend.services.InvalidClientException;
+import com.crm.backend.services.RateLimitExceededException;
+import com.crm.backend.services.RateLimiter;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Batch token introspection for the API gateway and other services.
+ *
+ * Callers authenticate with HTTP Basic client credentials listed in
+ * {@code crm.auth.introspect.clients} as {@code id:secret} pairs; with no
+ * clients configured every call is refused. Each client IP and each client
+ * gets its own request budget, checked before any token is verified.
+ *
+ * Batches are verified through {@link VerifiedTokenCache}, split into
+ * chunks of at least {@code crm.auth.introspect.chunk-size} tokens that run
+ * on a dedicated pool of {@code crm.auth.introspect.threads} threads with a
+ * bounded queue. When the queue is full the chunk runs on the request
+ * thread, so a burst of batches slows its callers down instead of piling up
+ * work or taking cores from the shared fork-join pool.
+ */
+@Component
+public class TokenIntrospector {
+
+    private static final String BASIC_PREFIX = "Basic ";
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final Map<String, byte[]> clientSecretDigests;
+    private final RateLimiter byIp;
+    private final RateLimiter byClient;
+    private final int chunkSize;
+    private final int threads;
+    private final ThreadPoolExecutor executor;
+
+    public TokenIntrospector(VerifiedTokenCache verifiedTokenCache,
+            @Value("${crm.auth.introspect.clients:}") String clients,
+            @Value("${crm.auth.introspect.threads:0}") int threads,
+            @Value("${crm.auth.introspect.chunk-size:16}") int chunkSize,
+            @Value("${crm.auth.introspect.ip.capacity:60}") int ipCapacity,
+            @Value("${crm.auth.introspect.ip.period-seconds:1}") long ipPeriod,
+            @Value("${crm.auth.introspect.client.capacity:200}") int clientCapacity,
+            @Value("${crm.auth.introspect.client.period-seconds:1}") long clientPeriod) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.clientSecretDigests = parseClients(clients);
+        this.byIp = new RateLimiter(ipCapacity, Duration.ofSeconds(ipPeriod), 100_000);
+        this.byClient = new RateLimiter(clientCapacity, Duration.ofSeconds(clientPeriod), 10_000);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.threads * 4), daemonThreads(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Checks the caller's budgets and credentials.
+     *
+     * @param authorization Authorization header of the request (can be null)
+     * @param clientIp Remote address of the caller
+     * @return the client id
+     * @throws RateLimitExceededException if the IP or the client is over its budget
+     * @throws InvalidClientException if the credentials are missing or wrong
+     */
+    public String authenticateClient(String authorization, String clientIp) {
+        checkBudget(byIp, clientIp);
+        String clientId = clientId(authorization);
+        if (clientId == null) {
+            throw new InvalidClientException();
+        }
+        checkBudget(byClient, clientId);
+        return clientId;
+    }
+
+    /**
+     * Introspects a batch of tokens.
+     *
+     * @param tokens Compact JWS strings
+     * @return the claims of each token in request order, null where the token is not active
+     */
+    public TokenClaims[] introspect(List<String> tokens) {
+        TokenClaims[] claims = new TokenClaims[tokens.size()];
+        int chunks = Math.min(threads, (claims.length + chunkSize - 1) / chunkSize);
+        if (chunks <= 1) {
+            introspect(tokens, claims, 0, claims.length);
+            return claims;
+        }
+
+        int perChunk = (claims.length + chunks - 1) / chunks;
+        List<CompletableFuture<Void>> forked = new ArrayList<>(chunks - 1);
+        for (int from = perChunk; from < claims.length; from += perChunk) {
+            int start = from;
+            int end = Math.min(from + perChunk, claims.length);
+            forked.add(CompletableFuture.runAsync(() -> introspect(tokens, claims, start, end), executor));
+        }
+        // The request thread takes the first chunk instead of idling
+        introspect(tokens, claims, 0, perChunk);
+        CompletableFuture.allOf(forked.toArray(new CompletableFuture[0])).join();
+        return claims;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private void introspect(List<String> tokens, TokenClaims[] claims, int from, int to) {
+        for (int i = from; i < to; i++) {
+            claims[i] = verifiedTokenCache.introspect(tokens.get(i));
+        }
+    }
+
+    /**
+     * @return the client id if the header carries valid Basic credentials, otherwise null
+     */
+    private String clientId(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BASIC_PREFIX, 0, BASIC_PREFIX.length())) {
+            return null;
+        }
+        String credentials;
+        try {
+            credentials = new String(Base64.getDecoder().decode(authorization.substring(BASIC_PREFIX.length()).trim()),
+                    StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int colon = credentials.indexOf(':');
+        if (colon < 0) {
+            return null;
+        }
+        String clientId = credentials.substring(0, colon);
+        byte[] expected = clientSecretDigests.get(clientId);
+        byte[] presented = sha256(credentials.substring(colon + 1));
+        // Compare digests in constant time; unknown ids are compared too so timing does not reveal them
+        boolean valid = MessageDigest.isEqual(expected != null ? expected : new byte[presented.length], presented);
+        return valid && expected != null ? clientId : null;
+    }
+
+    private static void checkBudget(RateLimiter limiter, String key) {
+        long retryAfterMillis = limiter.tryAcquire(key);
+        if (retryAfterMillis > 0) {
+            throw new RateLimitExceededException(retryAfterMillis);
+        }
+    }
+
+    private static Map<String, byte[]> parseClients(String clients) {
+        Map<String, byte[]> digests = new HashMap<>();
+        for (String entry : StringUtils.commaDelimitedListToStringArray(clients)) {
+            String trimmed = entry.trim();
+            int colon = trimmed.indexOf(':');
+            if (colon <= 0 || colon == trimmed.length() - 1) {
+                throw new IllegalArgumentException("crm.auth.introspect.clients entries must be id:secret");
+            }
+            digests.put(trimmed.substring(0, colon), sha256(trimmed.substring(colon + 1)));
+        }
+        return Map.copyOf(digests);
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static CustomizableThreadFactory daemonThreads() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("token-introspect-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
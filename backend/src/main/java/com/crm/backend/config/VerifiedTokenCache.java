@@ -0,0 +1,179 @@
+package com.crm.backend.config;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import com.crm.backend.dto.TokenClaims;
+import com.crm.backend.services.JwtService;
+import com.crm.backend.services.TokenRevocationService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size-bounded cache of access tokens whose signature has already been
+ * verified, sitting in front of {@link JwtService#verify(String)}.
+ *
+ * Entries are keyed by the SHA-256 digest of the token so raw tokens are
+ * never retained, hold the token's immutable claims, and expire no later
+ * than the token's own {@code exp}. Each lookup gets its own
+ * authentication object, because callers put it into a request's mutable
+ * security context. Eviction is W-TinyLFU (Caffeine)
+ * and hit/miss statistics are published as {@code cache.*} metrics under
+ * the name {@code jwt.verified-tokens}. Tokens of revoked sessions are
+ * rejected on every lookup, cached or not.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtService jwtService;
+    private final TokenRevocationService revocationService;
+    private final boolean enabled;
+    private final Cache<ByteBuffer, Entry> cache;
+    private final MessageDigest sha256Prototype;
+
+    public VerifiedTokenCache(JwtService jwtService, TokenRevocationService revocationService,
+            MeterRegistry meterRegistry,
+            @Value("${crm.auth.token-cache.enabled:true}") boolean enabled,
+            @Value("${crm.auth.token-cache.max-size:100000}") long maxSize) {
+        this.jwtService = jwtService;
+        this.revocationService = revocationService;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        try {
+            this.sha256Prototype = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+    }
+
+    /**
+     * Returns the authentication for a bearer token, verifying the token
+     * only if it is not already cached.
+     *
+     * @param token Compact JWS string
+     * @return the authentication, or null if the token is invalid or expired
+     */
+    public UsernamePasswordAuthenticationToken authenticate(String token) {
+        Entry entry = verified(token);
+        return entry == null || revocationService.isRevoked(entry.familyId()) ? null : toAuthentication(entry.claims());
+    }
+
+    /**
+     * Returns the claims of an access token if it is active: validly
+     * signed, not expired and not revoked. Shares the cache with
+     * {@link #authenticate(String)}.
+     *
+     * @param token Compact JWS string (can be null)
+     * @return the claims, or null if the token is not active
+     */
+    public TokenClaims introspect(String token) {
+        if (token == null) {
+            return null;
+        }
+        Entry entry = verified(token);
+        return entry == null || revocationService.isRevoked(entry.familyId()) ? null : entry.claims();
+    }
+
+    /**
+     * Drops every cached token, e.g. after signing keys change.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    /**
+     * Finds or verifies the token, without checking revocation.
+     *
+     * @return the entry, or null if the token is invalid or expired
+     */
+    private Entry verified(String token) {
+        if (!enabled) {
+            TokenClaims claims = jwtService.verify(token);
+            return claims == null ? null : newEntry(claims);
+        }
+
+        ByteBuffer key = digest(token);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && cached.claims().expiresAt().isAfter(Instant.now())) {
+            return cached;
+        }
+
+        TokenClaims claims = jwtService.verify(token);
+        if (claims == null) {
+            return null;
+        }
+        Entry entry = newEntry(claims);
+        cache.put(key, entry);
+        return entry;
+    }
+
+    private static Entry newEntry(TokenClaims claims) {
+        return new Entry(claims, parseFamilyId(claims.familyId()));
+    }
+
+    private static UsernamePasswordAuthenticationToken toAuthentication(TokenClaims claims) {
+        // The role is its own authority, so no authority objects are built per request
+        return new UsernamePasswordAuthenticationToken(claims.subject(), null, claims.role().authorities());
+    }
+
+    private static UUID parseFamilyId(String familyId) {
+        try {
+            return familyId == null ? null : UUID.fromString(familyId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = (MessageDigest) sha256Prototype.clone();
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest cannot be cloned", e);
+        }
+    }
+
+    private record Entry(TokenClaims claims, UUID familyId) {
+    }
+
+    /**
+     * Expires each entry at the token's own expiry time.
+     */
+    private static final class TokenExpiry implements Expiry<ByteBuffer, Entry> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Entry entry, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), entry.claims().expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
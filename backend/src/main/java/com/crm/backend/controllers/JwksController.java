@@ -0,0 +1,83 @@
+package com.crm.backend.controllers;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.crm.backend.services.JwtKeyRing;
+import com.crm.backend.services.JwtKeyRing.JwtKey;
+
+/**
+ * Publishes the public half of every asymmetric key in the {@link JwtKeyRing}
+ * as a JSON Web Key Set, so other services can verify tokens without holding
+ * a secret. HMAC keys are never published.
+ */
+@RestController
+public class JwksController {
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        List<Map<String, String>> keys = new ArrayList<>();
+        for (JwtKey key : jwtKeyRing.verificationKeys().values()) {
+            if (key.verificationKey() instanceof ECPublicKey ec) {
+                int size = (ec.getParams().getCurve().getField().getFieldSize() + 7) / 8;
+                Map<String, String> jwk = jwk(key, "EC");
+                jwk.put("crv", "P-" + ec.getParams().getCurve().getField().getFieldSize());
+                jwk.put("x", encode(ec.getW().getAffineX(), size));
+                jwk.put("y", encode(ec.getW().getAffineY(), size));
+                keys.add(jwk);
+            } else if (key.verificationKey() instanceof RSAPublicKey rsa) {
+                Map<String, String> jwk = jwk(key, "RSA");
+                jwk.put("n", encode(rsa.getModulus(), (rsa.getModulus().bitLength() + 7) / 8));
+                jwk.put("e", encode(rsa.getPublicExponent(), (rsa.getPublicExponent().bitLength() + 7) / 8));
+                keys.add(jwk);
+            }
+        }
+        // Verifiers may cache the set briefly; new keys verify before they sign
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(Map.of("keys", keys));
+    }
+
+    private static Map<String, String> jwk(JwtKey key, String type) {
+        Map<String, String> jwk = new LinkedHashMap<>();
+        jwk.put("kty", type);
+        jwk.put("kid", key.kid());
+        jwk.put("use", "sig");
+        jwk.put("alg", key.algorithm().getValue());
+        return jwk;
+    }
+
+    /**
+     * Unsigned big-endian encoding of exactly {@code length} bytes, as JWK requires.
+     */
+    private static String encode(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > length) {
+            bytes = Arrays.copyOfRange(bytes, bytes.length - length, bytes.length);
+        } else if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return BASE64_URL.encodeToString(bytes);
+    }
+}
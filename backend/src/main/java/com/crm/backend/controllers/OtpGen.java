@@ -1,26 +1,41 @@
 package com.crm.backend.controllers;
 
 import java.security.SecureRandom;
-import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.crm.backend.dto.OtpRequest;
 import com.crm.backend.dto.OtpVerificationRequest;
-import com.crm.backend.entity.Otp;
+import com.crm.backend.dto.TokenPair;
 import com.crm.backend.repository.UserRepo;
+import com.crm.backend.services.AuthAuditEvent;
+import com.crm.backend.services.AuthAuditLog;
 import com.crm.backend.services.JwtService;
+import com.crm.backend.services.MailQueueFullException;
+import com.crm.backend.services.OtpIssueCoalescer;
+import com.crm.backend.services.OtpRateLimiter;
+import com.crm.backend.services.OtpRateLimiter.Endpoint;
 import com.crm.backend.services.OtpService;
-
+import com.crm.backend.services.RateLimitExceededException;
+import com.crm.backend.services.RefreshTokenService;
+import com.crm.backend.services.Role;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 
 @RestController
@@ -30,9 +45,6 @@ public class OtpGen {
 
     private static final SecureRandom random = new SecureRandom();
     
-    @Autowired
-    private JavaMailSender javaMailSender;
-
     @Autowired
     private UserRepo userRepo;
 
@@ -42,7 +54,47 @@ public class OtpGen {
     @Autowired
     private OtpService otpService;
 
-    private String generateOtp(int length) {
+    @Autowired
+    private OtpRateLimiter otpRateLimiter;
+
+    @Autowired
+    private OtpIssueCoalescer otpIssueCoalescer;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private AuthAuditLog authAuditLog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer generateTimer;
+
+    // Registered up front so that recording an outcome is a map lookup, not a registry lookup
+    private final Map<AuthAuditEvent, Counter> generateOutcomes = new EnumMap<>(AuthAuditEvent.class);
+
+    @PostConstruct
+    void registerMeters() {
+        generateTimer = Timer.builder("otp.generate")
+            .description("Time to issue an OTP and queue its email")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        registerOutcome(AuthAuditEvent.OTP_ISSUED, "success");
+        registerOutcome(AuthAuditEvent.OTP_COALESCED, "coalesced");
+        registerOutcome(AuthAuditEvent.OTP_UNKNOWN_USER, "unknown_user");
+        registerOutcome(AuthAuditEvent.OTP_RATE_LIMITED, "rate_limited");
+        registerOutcome(AuthAuditEvent.OTP_QUEUE_FULL, "queue_full");
+        registerOutcome(AuthAuditEvent.OTP_INVALID_REQUEST, "invalid_request");
+    }
+
+    private void registerOutcome(AuthAuditEvent event, String outcome) {
+        generateOutcomes.put(event, Counter.builder("otp.generate.outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry));
+    }
+
+    static String generateOtp(int length) {
         StringBuilder otp = new StringBuilder();
         for (int i = 0; i < length; i++) {
             otp.append(random.nextInt(10));
@@ -52,52 +104,52 @@ public class OtpGen {
 
     @PostMapping("generate")
 public Map<String, String> generateOtpAndSend(@RequestBody OtpRequest otpRequest) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    try {
+        return issueOtp(otpRequest);
+    } finally {
+        sample.stop(generateTimer);
+    }
+}
+
+private Map<String, String> issueOtp(OtpRequest otpRequest) {
     // Validate email
     if (otpRequest.getEmail() == null || otpRequest.getEmail().trim().isEmpty()) {
+        recordGenerateOutcome(otpRequest, AuthAuditEvent.OTP_INVALID_REQUEST);
         throw new IllegalArgumentException("Email is required");
     }
 
     // Validate role
     if (otpRequest.getRole() == null || otpRequest.getRole().trim().isEmpty()) {
+        recordGenerateOutcome(otpRequest, AuthAuditEvent.OTP_INVALID_REQUEST);
         throw new IllegalArgumentException("Role is required");
     }
 
-    // Valid roles
-    List<String> validRoles = Arrays.asList(
-        "administrator",
-        "Sales Representative", 
-        "Sales Manager",
-        "Marketing Professional",
-        "Customer Support",
-        "Executive",
-        "finance_officer",
-        "support_user"
-    );
-
-    if (!validRoles.contains(otpRequest.getRole())) {
+    if (!Role.isValid(otpRequest.getRole())) {
+        recordGenerateOutcome(otpRequest, AuthAuditEvent.OTP_INVALID_REQUEST);
         throw new IllegalArgumentException("Invalid role selected");
     }
 
-    String otp = generateOtp(6);
-    Long otpValue = Long.parseLong(otp);
-
-    // ✅ Now we handle if the user is not in DB
-    boolean success = otpService.saveOtp(otpRequest.getEmail(), otpRequest.getRole(), otpValue);
-    if (!success) {
+    // A double click or client retry reuses the OTP of the request it duplicates
+    OtpIssueCoalescer.Outcome outcome;
+    try {
+        outcome = otpIssueCoalescer.issue(otpRequest.getEmail(), otpRequest.getRole(),
+            () -> sendNewOtp(otpRequest));
+    } catch (RateLimitExceededException e) {
+        recordGenerateOutcome(otpRequest, AuthAuditEvent.OTP_RATE_LIMITED);
+        throw e;
+    } catch (MailQueueFullException e) {
+        recordGenerateOutcome(otpRequest, AuthAuditEvent.OTP_QUEUE_FULL);
+        throw e;
+    }
+    if (outcome == OtpIssueCoalescer.Outcome.REJECTED) {
+        recordGenerateOutcome(otpRequest, AuthAuditEvent.OTP_UNKNOWN_USER);
         throw new RuntimeException("User with this email and role does not exist");
     }
-
-    // Now send the OTP email
-    try {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom("regenxscout@regensportz.com");
-        message.setTo(otpRequest.getEmail());
-        message.setSubject("Your OTP Code");
-        message.setText("Your OTP is: " + otp + "\n\nRole: " + otpRequest.getRole());
-        javaMailSender.send(message);
-    } catch (Exception e) {
-        log.error("Exception while sending OTP email", e);
-        throw new RuntimeException("Failed to send OTP email");
+    if (outcome == OtpIssueCoalescer.Outcome.COALESCED) {
+        recordGenerateOutcome(otpRequest, AuthAuditEvent.OTP_COALESCED);
+    } else {
+        recordGenerateOutcome(otpRequest, AuthAuditEvent.OTP_ISSUED);
     }
 
     Map<String, String> response = new HashMap<>();
@@ -106,6 +158,47 @@ public Map<String, String> generateOtpAndSend(@RequestBody OtpRequest otpRequest
     return response;
 }
 
+/**
+ * Issues a new OTP and queues its email.
+ *
+ * @return false if no user has the requested email and role
+ */
+private boolean sendNewOtp(OtpRequest otpRequest) {
+    // Per-email budget, checked before any database or mail work
+    otpRateLimiter.checkEmail(Endpoint.GENERATE, otpRequest.getEmail());
+
+    String otp = generateOtp(6);
+    Long otpValue = Long.parseLong(otp);
+
+    // Stores the OTP and queues its email together, shedding load first if the mail queue is full;
+    // delivery happens off the request thread
+    return otpService.saveOtp(otpRequest.getEmail(), otpRequest.getRole(), otpValue);
+}
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, String>> handleRateLimitExceeded(RateLimitExceededException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+            .body(response);
+    }
+
+    private void recordGenerateOutcome(OtpRequest otpRequest, AuthAuditEvent event) {
+        generateOutcomes.get(event).increment();
+        authAuditLog.record(event, otpRequest.getEmail(), otpRequest.getRole());
+    }
+
+    @ExceptionHandler(MailQueueFullException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, String> handleMailQueueFull(MailQueueFullException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", e.getMessage());
+        return response;
+    }
+
 
 
 
@@ -113,29 +206,28 @@ public Map<String, String> generateOtpAndSend(@RequestBody OtpRequest otpRequest
 
     @PostMapping("verify")
 public Map<String, Object> verifyOtp(@RequestBody OtpVerificationRequest verificationRequest) {
+    // Caps OTP guesses per email address
+    otpRateLimiter.checkEmail(Endpoint.VERIFY, verificationRequest.getEmail());
+
     boolean isValid = otpService.verifyOtp(
         verificationRequest.getEmail(),
         verificationRequest.getOtp(),
         verificationRequest.getuserRole()
     );
 
+    Role role = Role.fromName(verificationRequest.getuserRole());
+
     Map<String, Object> response = new HashMap<>();
-    if (isValid) {
-        Long otpValue = Long.parseLong(verificationRequest.getOtp());
-        Otp otp = otpService.findByEmailAndOtp(verificationRequest.getEmail(), otpValue);
-        
-        // ✅ No longer deleting OTP - instead, it's marked as "used" in verifyOtp()
-        
+    if (isValid && role != null) {
         // Get the user's role
         String userRole = verificationRequest.getuserRole();
 
-        // Generate tokens
-        String accessToken = jwtService.generateAccessToken(verificationRequest.getEmail(), userRole);
-        String refreshToken = jwtService.generateRefreshToken(verificationRequest.getEmail());
+        // Open a session; its refresh token can be exchanged at /api/v1/auth/token/refresh
+        TokenPair tokens = refreshTokenService.startSession(verificationRequest.getEmail(), role);
 
         response.put("status", "success");
-        response.put("access_token", accessToken);
-        response.put("refresh_token", refreshToken);
+        response.put("access_token", tokens.accessToken());
+        response.put("refresh_token", tokens.refreshToken());
         response.put("role", userRole);
         response.put("message", "OTP verified successfully");
     } else {
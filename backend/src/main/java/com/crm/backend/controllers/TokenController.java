@@ -0,0 +1,160 @@
+package com.crm.backend.controllers;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.crm.backend.config.TokenIntrospector;
+import com.crm.backend.dto.TokenClaims;
+import com.crm.backend.dto.TokenIntrospection;
+import com.crm.backend.dto.TokenIntrospectionRequest;
+import com.crm.backend.dto.TokenPair;
+import com.crm.backend.dto.TokenRefreshRequest;
+import com.crm.backend.services.InvalidClientException;
+import com.crm.backend.services.InvalidRefreshTokenException;
+import com.crm.backend.services.RateLimitExceededException;
+import com.crm.backend.services.RefreshTokenService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/api/v1/auth/token")
+public class TokenController {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenIntrospector tokenIntrospector;
+
+    @Value("${crm.auth.introspect.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer introspectTimer;
+    private Counter activeCounter;
+    private Counter inactiveCounter;
+
+    @PostConstruct
+    void registerMeters() {
+        introspectTimer = Timer.builder("auth.introspect")
+            .description("Time to introspect one batch of access tokens")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        activeCounter = introspectedCounter("active");
+        inactiveCounter = introspectedCounter("inactive");
+    }
+
+    // exchange a refresh token for a new access token and the next refresh token
+
+    @PostMapping("refresh")
+    public Map<String, Object> refresh(@RequestBody TokenRefreshRequest request) {
+        TokenPair tokens = refreshTokenService.refresh(request.getRefreshToken());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("access_token", tokens.accessToken());
+        response.put("refresh_token", tokens.refreshToken());
+        response.put("role", tokens.role());
+        return response;
+    }
+
+    // check a batch of access tokens for a gateway or another service (HTTP Basic client credentials), one result per token in request order
+
+    @PostMapping("introspect")
+    public Map<String, Object> introspect(@RequestBody TokenIntrospectionRequest request,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            HttpServletRequest servletRequest) {
+        tokenIntrospector.authenticateClient(authorization, servletRequest.getRemoteAddr());
+
+        List<String> tokens = request.getTokens();
+        if (tokens == null || tokens.isEmpty()) {
+            throw new IllegalArgumentException("tokens is required");
+        }
+        if (tokens.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " tokens per request");
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        TokenClaims[] claims = tokenIntrospector.introspect(tokens);
+        sample.stop(introspectTimer);
+
+        TokenIntrospection[] results = new TokenIntrospection[claims.length];
+        int active = 0;
+        for (int i = 0; i < claims.length; i++) {
+            results[i] = TokenIntrospection.of(claims[i]);
+            active += claims[i] != null ? 1 : 0;
+        }
+        activeCounter.increment(active);
+        inactiveCounter.increment(claims.length - active);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("tokens", results);
+        return response;
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleBadRequest(IllegalArgumentException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", e.getMessage());
+        return response;
+    }
+
+    @ExceptionHandler(InvalidClientException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidClient(InvalidClientException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+            .header(HttpHeaders.WWW_AUTHENTICATE, "Basic realm=\"token-introspection\"")
+            .body(response);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, String>> handleRateLimitExceeded(RateLimitExceededException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+            .body(response);
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    public Map<String, String> handleInvalidRefreshToken(InvalidRefreshTokenException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", e.getMessage());
+        return response;
+    }
+
+    private Counter introspectedCounter(String result) {
+        return Counter.builder("auth.introspect.tokens")
+            .description("Introspected access tokens by result")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,50 @@
+package com.crm.backend.controllers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.crm.backend.dto.UserPage;
+import com.crm.backend.services.UserListingService;
+
+@RestController
+@RequestMapping("/api/v1/users")
+public class UserController {
+
+    @Autowired
+    private UserListingService userListingService;
+
+    // list users page by page; pass next_cursor back as cursor to continue
+
+    @GetMapping
+    public Map<String, Object> listUsers(
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        UserPage page = userListingService.list(role, department, cursor, limit);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("users", page.users());
+        response.put("next_cursor", page.nextCursor());
+        return response;
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleBadRequest(IllegalArgumentException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", e.getMessage());
+        return response;
+    }
+}
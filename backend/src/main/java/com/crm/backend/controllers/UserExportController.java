@@ -0,0 +1,78 @@
+package com.crm.backend.controllers;
+
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.crm.backend.services.UserExportService;
+
+@RestController
+@RequestMapping("/api/v1/users")
+public class UserExportController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private UserExportService userExportService;
+
+    // full dump of User_Data; the body is written on an async thread, gzipped if the client accepts it
+
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"csv".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("format must be csv or ndjson");
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            if (ndjson) {
+                userExportService.exportNdjson(target);
+            } else {
+                userExportService.exportCsv(target);
+            }
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(ndjson ? APPLICATION_NDJSON : TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"users." + (ndjson ? "ndjson" : "csv") + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleBadRequest(IllegalArgumentException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", e.getMessage());
+        return response;
+    }
+}
@@ -0,0 +1,117 @@
+package com.crm.backend.controllers;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.stereotype.Controller;
+
+import com.crm.backend.entity.Administrator;
+import com.crm.backend.entity.User;
+import com.crm.backend.repository.AdministratorRepo;
+import com.crm.backend.repository.UserRepo;
+
+/**
+ * GraphQL queries over {@code User_Data} and {@code administrator_data}.
+ *
+ * Related records are resolved with {@link BatchMapping}: the
+ * {@code administrator} of every user in a response (and the {@code user}
+ * of every administrator) is loaded with a single {@code IN} query, so a
+ * query returns in a fixed number of statements however many rows it has.
+ */
+@Controller
+public class UserGraphQlController {
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private AdministratorRepo administratorRepo;
+
+    @Value("${crm.graphql.max-page-size:500}")
+    private int maxPageSize;
+
+    @QueryMapping
+    public List<User> users(@Argument String role, @Argument String department, @Argument int limit) {
+        return userRepo.findFiltered(role, department, pageLimit(limit));
+    }
+
+    @QueryMapping
+    public User user(@Argument Long userId) {
+        return userRepo.findById(userId).orElse(null);
+    }
+
+    @QueryMapping
+    public List<Administrator> administrators(@Argument String role, @Argument int limit) {
+        return administratorRepo.findFiltered(role, pageLimit(limit));
+    }
+
+    @QueryMapping
+    public Administrator administrator(@Argument Long userId) {
+        return administratorRepo.findById(userId).orElse(null);
+    }
+
+    @BatchMapping(typeName = "User", field = "administrator")
+    public Map<User, Administrator> userAdministrator(List<User> users) {
+        Map<Long, Administrator> byId = byId(administratorRepo.findAllById(ids(users, User::getUserId)),
+                Administrator::getUserId);
+        return matchSources(users, User::getUserId, byId);
+    }
+
+    @BatchMapping(typeName = "Administrator", field = "user")
+    public Map<Administrator, User> administratorUser(List<Administrator> administrators) {
+        Map<Long, User> byId = byId(userRepo.findAllById(ids(administrators, Administrator::getUserId)),
+                User::getUserId);
+        return matchSources(administrators, Administrator::getUserId, byId);
+    }
+
+    @SchemaMapping(typeName = "User", field = "createdAt")
+    public String createdAt(User user) {
+        return isoInstant(user.getCreatedAt());
+    }
+
+    @SchemaMapping(typeName = "User", field = "updatedAt")
+    public String updatedAt(User user) {
+        return isoInstant(user.getUpdatedAt());
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private Limit pageLimit(int limit) {
+        return Limit.of(Math.max(1, Math.min(limit, maxPageSize)));
+    }
+
+    private static <T> List<Long> ids(List<T> sources, Function<T, Long> id) {
+        return sources.stream().map(id).distinct().toList();
+    }
+
+    private static <T> Map<Long, T> byId(List<T> rows, Function<T, Long> id) {
+        return rows.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    // Sources without a related row are left out and resolve to null
+    private static <S, T> Map<S, T> matchSources(List<S> sources, Function<S, Long> id, Map<Long, T> byId) {
+        Map<S, T> matched = new HashMap<>();
+        for (S source : sources) {
+            T related = byId.get(id.apply(source));
+            if (related != null) {
+                matched.put(source, related);
+            }
+        }
+        return matched;
+    }
+
+    private static String isoInstant(Date date) {
+        return date != null ? date.toInstant().toString() : null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.crm.backend.controllers;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.crm.backend.dto.UserImportResult;
+import com.crm.backend.services.InvalidImportException;
+import com.crm.backend.services.UserImportService;
+
+@RestController
+@RequestMapping("/api/v1/users")
+public class UserImportController {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    // bulk import; the body is streamed straight into the importer, never buffered
+
+    @PostMapping(value = "import", consumes = "text/csv")
+    public Map<String, Object> importCsv(InputStream body) {
+        return toResponse(userImportService.importCsv(body));
+    }
+
+    @PostMapping(value = "import", consumes = "application/x-ndjson")
+    public Map<String, Object> importNdjson(InputStream body) {
+        return toResponse(userImportService.importNdjson(body));
+    }
+
+    @ExceptionHandler(InvalidImportException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleInvalidImport(InvalidImportException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "error");
+        response.put("message", e.getMessage());
+        return response;
+    }
+
+    private static Map<String, Object> toResponse(UserImportResult result) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("total", result.total());
+        response.put("imported", result.imported());
+        response.put("duplicates", result.duplicates());
+        response.put("rejected", result.rejected());
+        response.put("errors", result.errors());
+        response.put("errors_truncated", result.errorsTruncated());
+        return response;
+    }
+}
@@ -0,0 +1,17 @@
+package com.crm.backend.dto;
+
+import java.time.Instant;
+
+import com.crm.backend.services.Role;
+
+/**
+ * Verified contents of a refresh token.
+ *
+ * @param subject User email
+ * @param role User role the session was opened for
+ * @param familyId Id of the login session all rotated tokens belong to
+ * @param generation Position of this token in the rotation chain
+ * @param expiresAt Token expiry
+ */
+public record RefreshTokenClaims(String subject, Role role, String familyId, int generation, Instant expiresAt) {
+}
@@ -0,0 +1,16 @@
+package com.crm.backend.dto;
+
+import java.time.Instant;
+
+import com.crm.backend.services.Role;
+
+/**
+ * Immutable view of the claims of a verified access token.
+ *
+ * @param subject Email address the token was issued to
+ * @param role User role
+ * @param expiresAt Expiry instant of the token
+ * @param familyId Login session the token belongs to (null for tokens issued outside a session)
+ */
+public record TokenClaims(String subject, Role role, Instant expiresAt, String familyId) {
+}
@@ -0,0 +1,23 @@
+package com.crm.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Introspection result for one access token, named after RFC 7662. An
+ * inactive token carries only {@code active: false}, without saying why.
+ *
+ * @param active true if the token is validly signed, unexpired and not revoked
+ * @param sub Email address the token was issued to
+ * @param role User role
+ * @param exp Expiry as epoch seconds
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TokenIntrospection(boolean active, String sub, String role, Long exp) {
+
+    public static final TokenIntrospection INACTIVE = new TokenIntrospection(false, null, null, null);
+
+    public static TokenIntrospection of(TokenClaims claims) {
+        return claims == null ? INACTIVE : new TokenIntrospection(true, claims.subject(),
+                claims.role().getAuthority(), claims.expiresAt().getEpochSecond());
+    }
+}
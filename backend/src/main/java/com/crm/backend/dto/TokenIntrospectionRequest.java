@@ -0,0 +1,19 @@
+package com.crm.backend.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class TokenIntrospectionRequest {
+
+    @JsonProperty("tokens")
+    private List<String> tokens;
+
+    public List<String> getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(List<String> tokens) {
+        this.tokens = tokens;
+    }
+}
@@ -0,0 +1,7 @@
+package com.crm.backend.dto;
+
+/**
+ * Access and refresh token issued together for one session.
+ */
+public record TokenPair(String accessToken, String refreshToken, String role) {
+}
@@ -0,0 +1,24 @@
+package com.crm.backend.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import.
+ *
+ * @param total Data rows read
+ * @param imported Rows inserted
+ * @param duplicates Rows skipped because the email and role already exist
+ * @param rejected Rows that failed parsing or validation
+ * @param errors Per-row errors, capped at the configured limit
+ * @param errorsTruncated true if more rows were rejected than are listed
+ */
+public record UserImportResult(long total, long imported, long duplicates, long rejected,
+        List<RowError> errors, boolean errorsTruncated) {
+
+    /**
+     * @param line 1-based line number in the upload
+     * @param message Why the row was rejected
+     */
+    public record RowError(long line, String message) {
+    }
+}
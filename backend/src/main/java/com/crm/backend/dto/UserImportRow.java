@@ -0,0 +1,30 @@
+package com.crm.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One user in a bulk import, as a CSV record or an NDJSON line.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserImportRow {
+
+    @JsonProperty("user_name")
+    private String userName;
+
+    @JsonProperty("user_email")
+    private String userEmail;
+
+    @JsonProperty("user_role")
+    private String userRole;
+
+    @JsonProperty("department")
+    private String department;
+}
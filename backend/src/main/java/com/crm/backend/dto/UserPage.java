@@ -0,0 +1,12 @@
+package com.crm.backend.dto;
+
+import java.util.List;
+
+/**
+ * One page of a user listing.
+ *
+ * @param users Rows of the page, ordered by id
+ * @param nextCursor Cursor for the following page, or null on the last page
+ */
+public record UserPage(List<UserSummary> users, String nextCursor) {
+}
@@ -0,0 +1,8 @@
+package com.crm.backend.dto;
+
+/**
+ * Columns of a {@code User_Data} row shown in user listings, read with a
+ * constructor projection instead of loading the entity.
+ */
+public record UserSummary(Long userId, String userName, String userEmail, String userRole, String department) {
+}
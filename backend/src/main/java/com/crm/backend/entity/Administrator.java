@@ -2,7 +2,6 @@ package com.crm.backend.entity;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
-import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 import lombok.Data;
 
@@ -14,7 +13,6 @@ public class Administrator {
     @Id
     private Long userId;
 
-    @OneToOne
     private String userName;
 
     private String userEmail;
@@ -0,0 +1,41 @@
+package com.crm.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of the append-only authentication audit log. Rows are written
+ * only by the multi-row inserts of {@code AuthAuditLog} and never updated;
+ * the entity exists so the schema is managed with the others. The event and
+ * role are stored as their one-byte codes ({@code AuthAuditEvent},
+ * {@code Role}) and the time as epoch milliseconds.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "Auth_Audit", indexes = {
+    @Index(name = "idx_auth_audit_email_occurred_at", columnList = "email, occurredAt")
+})
+public class AuthAudit {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private long occurredAt;
+
+    private byte eventCode;
+
+    // Null when the request named no valid role
+    private Byte roleCode;
+
+    @Column(length = 320)
+    private String email;
+}
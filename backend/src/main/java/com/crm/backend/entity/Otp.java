@@ -7,10 +7,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name="Otp_Store")
+@Table(name="Otp_Store", indexes = {
+    @Index(name = "idx_otp_created_at", columnList = "createdAt"),
+    @Index(name = "idx_otp_email_otp", columnList = "userEmail, otp")
+})
 
 public class Otp {
 
@@ -0,0 +1,63 @@
+package com.crm.backend.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * OTP email waiting to be sent, written in the same transaction as the
+ * {@code Otp_Store} row it belongs to. A row stays {@code PENDING} until a
+ * drainer has handed it to the SMTP server; {@code nextAttemptAt} hides it
+ * from other drainers while it is claimed or backing off after a failure.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "Otp_Mail_Outbox", indexes = {
+    @Index(name = "idx_otp_outbox_status_next_attempt", columnList = "status, nextAttemptAt"),
+    @Index(name = "idx_otp_outbox_created_at", columnList = "createdAt")
+})
+public class OtpMailOutbox {
+
+    public enum Status { PENDING, SENT, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String recipient;
+
+    @Column(length = 16)
+    private String otp;
+
+    private String userRole;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8, nullable = false)
+    private Status status;
+
+    private int attempts;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime nextAttemptAt;
+
+    public OtpMailOutbox(String recipient, String otp, String userRole, LocalDateTime createdAt) {
+        this.recipient = recipient;
+        this.otp = otp;
+        this.userRole = userRole;
+        this.status = Status.PENDING;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+}
@@ -0,0 +1,41 @@
+package com.crm.backend.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One login session's refresh token chain. Only the refresh token carrying
+ * the current {@code generation} can be exchanged; presenting an older one
+ * means a token was copied, and the whole family is revoked.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "Refresh_Token_Family", indexes = {
+    @Index(name = "idx_refresh_family_expires_at", columnList = "expiresAt"),
+    @Index(name = "idx_refresh_family_revoked_at", columnList = "revokedAt")
+})
+public class RefreshTokenFamily {
+
+    @Id
+    @Column(length = 36)
+    private String familyId;
+
+    private String userEmail;
+
+    private int generation;
+
+    private LocalDateTime expiresAt;
+
+    /** Set when the family is revoked, null while it is live. */
+    private LocalDateTime revokedAt;
+}
@@ -0,0 +1,29 @@
+package com.crm.backend.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Time-limited lease on a named background job, used so that only one node
+ * in the cluster runs the job at a time.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "Scheduler_Lease")
+public class SchedulerLease {
+
+    @Id
+    private String name;
+
+    private String owner;
+
+    private LocalDateTime leasedUntil;
+}
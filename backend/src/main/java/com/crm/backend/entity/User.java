@@ -2,11 +2,15 @@ package com.crm.backend.entity;
 
 import java.util.Date;
 
+import com.crm.backend.services.UserCacheInvalidator;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -17,7 +21,16 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor  // it is used to create a constructor without argunments
 @AllArgsConstructor   // it is used to create a constructor with aurgunments
 @Entity
-@Table(name= "User_Data")
+@EntityListeners(UserCacheInvalidator.class)
+// Email/role is unique: it serves login lookups and makes the database
+// reject duplicate users; the others let filtered listings seek straight
+// to the next page
+@Table(name= "User_Data", indexes = {
+    @Index(name = "idx_user_email_role", columnList = "User_Email, User_Role", unique = true),
+    @Index(name = "idx_user_role_id", columnList = "User_Role, userId"),
+    @Index(name = "idx_user_department_id", columnList = "Department, userId"),
+    @Index(name = "idx_user_role_department_id", columnList = "User_Role, Department, userId")
+})
 
 public class User {
 
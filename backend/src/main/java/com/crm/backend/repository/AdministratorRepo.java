@@ -1,9 +1,21 @@
 package com.crm.backend.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.crm.backend.entity.Administrator;
 
+// Query methods get no transaction of their own; read-only lets them use a replica
+@Transactional(readOnly = true)
 public interface AdministratorRepo extends JpaRepository<Administrator, Long>{
-    
+
+    /**
+     * Administrators with the given role; a null role matches all.
+     */
+    @Query("SELECT a FROM Administrator a WHERE (:role IS NULL OR a.userRole = :role) ORDER BY a.userId")
+    List<Administrator> findFiltered(String role, Limit limit);
 }
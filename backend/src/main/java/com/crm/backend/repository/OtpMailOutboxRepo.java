@@ -0,0 +1,43 @@
+package com.crm.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.crm.backend.entity.OtpMailOutbox;
+import com.crm.backend.entity.OtpMailOutbox.Status;
+
+@Repository
+public interface OtpMailOutboxRepo extends JpaRepository<OtpMailOutbox, Long> {
+
+    /**
+     * Locks the next due rows, skipping rows another drainer has locked, so
+     * concurrent drainers on any node never claim the same row.
+     */
+    @Query(value = "SELECT * FROM otp_mail_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now"
+            + " ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OtpMailOutbox> lockDue(LocalDateTime now, int limit);
+
+    @Modifying
+    @Query("UPDATE OtpMailOutbox o SET o.nextAttemptAt = :until WHERE o.id IN :ids")
+    int claim(List<Long> ids, LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE OtpMailOutbox o SET o.status = :status, o.attempts = o.attempts + 1 WHERE o.id IN :ids")
+    int finish(List<Long> ids, Status status);
+
+    @Modifying
+    @Query("UPDATE OtpMailOutbox o SET o.attempts = o.attempts + 1, o.nextAttemptAt = :retryAt WHERE o.id IN :ids")
+    int retryAt(List<Long> ids, LocalDateTime retryAt);
+
+    long countByStatus(Status status);
+
+    @Query("SELECT o.id FROM OtpMailOutbox o WHERE o.status <> com.crm.backend.entity.OtpMailOutbox.Status.PENDING"
+            + " AND o.createdAt < :cutoff ORDER BY o.id")
+    List<Long> findFinishedIds(LocalDateTime cutoff, Limit limit);
+}
@@ -1,7 +1,9 @@
 package com.crm.backend.repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -12,8 +14,35 @@ import com.crm.backend.entity.Otp;
 @Repository
 public interface OtpRepo extends JpaRepository<Otp, Long> {
     Otp findByUserEmailAndOtp(String email, Long otp);
-    
+
+    /**
+     * Marks a code used only if it is unused, recent enough and issued for
+     * the role, so concurrent verifications of one code cannot both succeed.
+     *
+     * @return number of rows flipped to used, 0 if the code was rejected
+     */
+    @Modifying
+    @Query("UPDATE Otp o SET o.used = true WHERE o.userEmail = :email AND o.otp = :otp AND o.used = false"
+            + " AND o.createdAt > :validAfter AND (:role IS NULL OR o.userRole = :role)")
+    int consume(String email, Long otp, String role, LocalDateTime validAfter);
+
+    @Query("SELECT o.userRole AS userRole, o.used AS used, o.createdAt AS createdAt FROM Otp o"
+            + " WHERE o.userEmail = :email AND o.otp = :otp ORDER BY o.id DESC")
+    List<OtpState> findStates(String email, Long otp, Limit limit);
+
+    @Query("SELECT o.id FROM Otp o WHERE o.createdAt < :cutoff ORDER BY o.createdAt, o.id")
+    List<Long> findExpiredIds(LocalDateTime cutoff, Limit limit);
+
     @Modifying
-    @Query("DELETE FROM Otp o WHERE o.createdAt < :expiryTime")
-    void deleteByCreatedAtBefore(LocalDateTime expiryTime);
-}
\ No newline at end of file
+    @Query("DELETE FROM Otp o WHERE o.id BETWEEN :fromId AND :toId AND o.createdAt < :cutoff")
+    int deleteExpiredInRange(Long fromId, Long toId, LocalDateTime cutoff);
+
+    /**
+     * Columns needed to explain why a code was rejected.
+     */
+    interface OtpState {
+        String getUserRole();
+        boolean isUsed();
+        LocalDateTime getCreatedAt();
+    }
+}
@@ -0,0 +1,38 @@
+package com.crm.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.crm.backend.entity.RefreshTokenFamily;
+
+@Repository
+public interface RefreshTokenFamilyRepo extends JpaRepository<RefreshTokenFamily, String> {
+
+    /**
+     * Advances the family to the next generation if the presented token is
+     * the current one and the family is still live.
+     *
+     * @return 1 if the token was exchanged, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE RefreshTokenFamily f SET f.generation = f.generation + 1, f.expiresAt = :expiresAt "
+            + "WHERE f.familyId = :familyId AND f.generation = :generation "
+            + "AND f.revokedAt IS NULL AND f.expiresAt > :now")
+    int rotate(String familyId, int generation, LocalDateTime now, LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE RefreshTokenFamily f SET f.revokedAt = :now WHERE f.familyId = :familyId AND f.revokedAt IS NULL")
+    int revoke(String familyId, LocalDateTime now);
+
+    @Query("SELECT f FROM RefreshTokenFamily f WHERE f.revokedAt >= :since AND f.expiresAt > :now")
+    List<RefreshTokenFamily> findRevokedSince(LocalDateTime since, LocalDateTime now);
+
+    @Query("SELECT f.familyId FROM RefreshTokenFamily f WHERE f.expiresAt < :cutoff")
+    List<String> findExpiredIds(LocalDateTime cutoff, Limit limit);
+}
@@ -0,0 +1,23 @@
+package com.crm.backend.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.crm.backend.entity.SchedulerLease;
+
+@Repository
+public interface SchedulerLeaseRepo extends JpaRepository<SchedulerLease, String> {
+
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.owner = :owner, l.leasedUntil = :until "
+            + "WHERE l.name = :name AND (l.leasedUntil < :now OR l.owner = :owner)")
+    int tryAcquire(String name, String owner, LocalDateTime now, LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.leasedUntil = :now WHERE l.name = :name AND l.owner = :owner")
+    int release(String name, String owner, LocalDateTime now);
+}
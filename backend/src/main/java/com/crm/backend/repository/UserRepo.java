@@ -1,11 +1,46 @@
 package com.crm.backend.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.crm.backend.dto.UserSummary;
 import com.crm.backend.entity.User;
 
+// Query methods get no transaction of their own; read-only lets them use a replica
+@Transactional(readOnly = true)
 public interface UserRepo extends JpaRepository<User, Long>{
+
+    String SUMMARY = "SELECT new com.crm.backend.dto.UserSummary("
+            + "u.userId, u.userName, u.userEmail, u.userRole, u.Department) FROM User u ";
+
     Optional<User> findByUserEmailAndUserRole(String userEmail, String userRole);
+
+    /**
+     * Users with the given role and department; a null filter matches all.
+     */
+    @Query("SELECT u FROM User u WHERE (:role IS NULL OR u.userRole = :role) "
+            + "AND (:department IS NULL OR u.Department = :department) ORDER BY u.userId")
+    List<User> findFiltered(String role, String department, Limit limit);
+
+    // Keyset pages: each filter combination has its own query so it can
+    // seek on the matching (filter..., userId) index
+
+    @Query(SUMMARY + "WHERE u.userId > :afterId ORDER BY u.userId")
+    List<UserSummary> findSummariesAfter(long afterId, Limit limit);
+
+    @Query(SUMMARY + "WHERE u.userRole = :role AND u.userId > :afterId ORDER BY u.userId")
+    List<UserSummary> findSummariesByRoleAfter(String role, long afterId, Limit limit);
+
+    @Query(SUMMARY + "WHERE u.Department = :department AND u.userId > :afterId ORDER BY u.userId")
+    List<UserSummary> findSummariesByDepartmentAfter(String department, long afterId, Limit limit);
+
+    @Query(SUMMARY + "WHERE u.userRole = :role AND u.Department = :department AND u.userId > :afterId "
+            + "ORDER BY u.userId")
+    List<UserSummary> findSummariesByRoleAndDepartmentAfter(String role, String department, long afterId,
+            Limit limit);
 }
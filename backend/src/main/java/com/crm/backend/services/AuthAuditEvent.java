@@ -0,0 +1,68 @@
+package com.crm.backend.services;
+
+/**
+ * Kinds of entries in the authentication audit log.
+ *
+ * Entries store the stable numeric {@link #code()} rather than the name, in
+ * the {@code Auth_Audit} table and in audit files alike. Never reuse or
+ * renumber a code, only append.
+ */
+public enum AuthAuditEvent {
+
+    OTP_ISSUED(0),
+    OTP_UNKNOWN_USER(1),
+    OTP_RATE_LIMITED(2),
+    OTP_QUEUE_FULL(3),
+    OTP_INVALID_REQUEST(4),
+    OTP_COALESCED(5),
+    OTP_VERIFIED(10),
+    OTP_NOT_FOUND(11),
+    OTP_EXPIRED(12),
+    OTP_ALREADY_USED(13),
+    OTP_ROLE_MISMATCH(14),
+    OTP_MALFORMED(15),
+    TOKEN_ISSUED(20),
+    TOKEN_REFRESHED(21),
+    TOKEN_REUSE_DETECTED(22);
+
+    private static final AuthAuditEvent[] BY_CODE;
+
+    static {
+        AuthAuditEvent[] events = values();
+        BY_CODE = new AuthAuditEvent[events[events.length - 1].code + 1];
+        for (AuthAuditEvent event : events) {
+            BY_CODE[event.code] = event;
+        }
+    }
+
+    private final byte code;
+
+    AuthAuditEvent(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    /**
+     * @param code Code read back from the audit log
+     * @return the event, or null if no event has the code
+     */
+    public static AuthAuditEvent fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    /**
+     * @return the audit event for an OTP verification outcome
+     */
+    public static AuthAuditEvent of(OtpVerification outcome) {
+        return switch (outcome) {
+            case VERIFIED -> OTP_VERIFIED;
+            case NOT_FOUND -> OTP_NOT_FOUND;
+            case EXPIRED -> OTP_EXPIRED;
+            case ALREADY_USED -> OTP_ALREADY_USED;
+            case ROLE_MISMATCH -> OTP_ROLE_MISMATCH;
+        };
+    }
+}
@@ -0,0 +1,267 @@
+package com.crm.backend.services;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Audit trail of OTP requests, OTP verifications and token issuance, kept
+ * off the request path.
+ *
+ * {@link #record} claims a slot of a preallocated ring buffer with one
+ * compare-and-set and copies the entry into it; it never blocks, never
+ * allocates and never waits for I/O. When the ring is full the entry is
+ * dropped and counted in {@code auth.audit.events{outcome=dropped}}, so a
+ * slow database or disk costs audit entries, never request latency. The
+ * ring is columnar (one primitive array per field), so its memory is fixed
+ * at {@code crm.audit.buffer-size} entries plus the email strings they
+ * reference.
+ *
+ * A single writer thread drains the ring in batches of up to
+ * {@code crm.audit.batch-size} and hands them to the sink chosen by
+ * {@code crm.audit.sink}: {@code jdbc} (default) appends them to the
+ * {@code Auth_Audit} table with one multi-row {@code INSERT} per batch,
+ * {@code file} to a rolling binary file, and {@code none} turns auditing
+ * off. A batch the sink rejects is counted as failed and not retried.
+ */
+@Service
+@Slf4j
+public class AuthAuditLog {
+
+    // Matches the Auth_Audit column; keeps one entry's memory bounded
+    private static final int MAX_EMAIL_LENGTH = 320;
+    private static final byte NO_ROLE = -1;
+
+    private final AuthAuditSink sink;
+    private final int mask;
+    private final long[] occurredAt;
+    private final byte[] events;
+    private final byte[] roles;
+    private final String[] emails;
+    // Vyukov bounded queue: slot i is free for position p when its sequence is p, readable when p + 1
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AuthAuditSink.Batch batch;
+    private final long idleParkNanos;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    // Only the writer thread advances the head
+    private volatile long head;
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public AuthAuditLog(DataSource dataSource, MeterRegistry meterRegistry,
+            @Value("${crm.audit.sink:jdbc}") String sink,
+            @Value("${crm.audit.buffer-size:16384}") int bufferSize,
+            @Value("${crm.audit.batch-size:500}") int batchSize,
+            @Value("${crm.audit.idle-ms:50}") long idleMillis,
+            @Value("${crm.audit.file.path:logs/auth-audit.bin}") String filePath,
+            @Value("${crm.audit.file.max-bytes:67108864}") long fileMaxBytes,
+            @Value("${crm.audit.file.max-files:10}") int fileMaxFiles) throws IOException {
+        this(createSink(sink, dataSource, batchSize, filePath, fileMaxBytes, fileMaxFiles),
+                bufferSize, batchSize, idleMillis, meterRegistry);
+    }
+
+    AuthAuditLog(AuthAuditSink sink, int bufferSize, int batchSize, long idleMillis, MeterRegistry meterRegistry) {
+        if (bufferSize < 2 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("crm.audit.buffer-size must be a power of two, was " + bufferSize);
+        }
+        this.sink = sink;
+        this.mask = bufferSize - 1;
+        this.occurredAt = new long[bufferSize];
+        this.events = new byte[bufferSize];
+        this.roles = new byte[bufferSize];
+        this.emails = new String[bufferSize];
+        this.sequences = new AtomicLongArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            sequences.set(i, i);
+        }
+        this.batch = new AuthAuditSink.Batch(batchSize);
+        this.idleParkNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.writtenCounter = eventCounter(meterRegistry, "written");
+        this.droppedCounter = eventCounter(meterRegistry, "dropped");
+        this.failedCounter = eventCounter(meterRegistry, "failed");
+        Gauge.builder("auth.audit.backlog", this, AuthAuditLog::backlog)
+                .description("Audit entries waiting for the writer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the writer thread.
+     */
+    @PostConstruct
+    public void start() {
+        if (sink == null) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "auth-audit");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Writes what is still buffered and closes the sink.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        try {
+            sink.close();
+        } catch (Exception e) {
+            log.warn("Closing the auth audit sink failed", e);
+        }
+    }
+
+    /**
+     * Queues an audit entry without blocking; drops it if the buffer is full.
+     *
+     * @param event What happened
+     * @param email Email address the request was for (can be null)
+     * @param role Role the request was for (can be null)
+     */
+    public void record(AuthAuditEvent event, String email, Role role) {
+        if (sink == null) {
+            return;
+        }
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            if (sequence < position) {
+                droppedCounter.increment();
+                return;
+            }
+            if (sequence == position && tail.compareAndSet(position, position + 1)) {
+                break;
+            }
+        }
+        occurredAt[index] = System.currentTimeMillis();
+        events[index] = event.code();
+        roles[index] = role == null ? NO_ROLE : (byte) role.code();
+        emails[index] = email != null && email.length() > MAX_EMAIL_LENGTH ? email.substring(0, MAX_EMAIL_LENGTH) : email;
+        // Publishes the fields above to the writer
+        sequences.set(index, position + 1);
+    }
+
+    /**
+     * Same as {@link #record(AuthAuditEvent, String, Role)} for a role name
+     * from a request; names that are not a role are recorded as no role.
+     */
+    public void record(AuthAuditEvent event, String email, String roleName) {
+        record(event, email, Role.fromName(roleName));
+    }
+
+    /**
+     * Hands everything buffered so far to the sink, in batches.
+     *
+     * @return number of entries drained
+     */
+    int drain() {
+        int drained = 0;
+        int size;
+        while ((size = fillBatch()) > 0) {
+            try {
+                sink.write(batch);
+                writtenCounter.increment(size);
+            } catch (Exception e) {
+                failedCounter.increment(size);
+                log.warn("Writing {} auth audit entries failed", size, e);
+            }
+            drained += size;
+            if (size < batch.occurredAt.length) {
+                break;
+            }
+        }
+        return drained;
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private void writeLoop() {
+        while (running) {
+            try {
+                if (drain() == 0) {
+                    LockSupport.parkNanos(this, idleParkNanos);
+                }
+            } catch (RuntimeException e) {
+                log.error("Auth audit writer failed", e);
+                LockSupport.parkNanos(this, idleParkNanos);
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Moves up to one batch of published entries out of the ring and frees
+     * their slots for producers.
+     */
+    private int fillBatch() {
+        int size = 0;
+        int capacity = batch.occurredAt.length;
+        while (size < capacity) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            batch.occurredAt[size] = occurredAt[index];
+            batch.events[size] = events[index];
+            batch.roles[size] = roles[index];
+            batch.emails[size] = emails[index];
+            emails[index] = null;
+            sequences.set(index, head + mask + 1);
+            head++;
+            size++;
+        }
+        batch.size = size;
+        return size;
+    }
+
+    private double backlog() {
+        return Math.max(0, tail.get() - head);
+    }
+
+    private static AuthAuditSink createSink(String sink, DataSource dataSource, int batchSize, String filePath,
+            long fileMaxBytes, int fileMaxFiles) throws IOException {
+        return switch (sink) {
+            case "jdbc" -> new JdbcAuthAuditSink(new JdbcTemplate(dataSource), batchSize);
+            case "file" -> new FileAuthAuditSink(Path.of(filePath), fileMaxBytes, fileMaxFiles);
+            case "none" -> null;
+            default -> throw new IllegalArgumentException("crm.audit.sink must be jdbc, file or none, was " + sink);
+        };
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.audit.events")
+                .description("Authentication audit entries by result")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
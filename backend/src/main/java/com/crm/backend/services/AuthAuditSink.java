@@ -0,0 +1,40 @@
+package com.crm.backend.services;
+
+/**
+ * Destination of the batches drained from {@link AuthAuditLog}. Called only
+ * from the single audit writer thread.
+ */
+interface AuthAuditSink extends AutoCloseable {
+
+    /**
+     * Writes the first {@link Batch#size} entries of the batch. The arrays
+     * are reused for the next batch once this returns.
+     *
+     * @throws Exception if the batch could not be written; it is then counted
+     *         as failed and not retried
+     */
+    void write(Batch batch) throws Exception;
+
+    @Override
+    default void close() throws Exception {
+    }
+
+    /**
+     * Entries in the same columnar layout as the ring buffer.
+     */
+    final class Batch {
+
+        final long[] occurredAt;
+        final byte[] events;
+        final byte[] roles;
+        final String[] emails;
+        int size;
+
+        Batch(int capacity) {
+            this.occurredAt = new long[capacity];
+            this.events = new byte[capacity];
+            this.roles = new byte[capacity];
+            this.emails = new String[capacity];
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.crm.backend.services;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, thread-safe Bloom filter over 128-bit keys.
+ *
+ * Bits live in an {@link AtomicLongArray}, so concurrent inserts and lookups
+ * need no locks. Probe positions use double hashing of the two halves of the
+ * key after a 64-bit finalizer mix. Sized for {@code expectedEntries} at the
+ * given false positive rate; it never returns a false negative.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedEntries, double falsePositiveRate) {
+        long bits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.max(1, (bits + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEntries * Math.log(2)));
+    }
+
+    public void put(long high, long low) {
+        long h1 = mix(high);
+        long h2 = mix(low) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            long mask = 1L << bit;
+            int index = (int) (bit >>> 6);
+            if ((words.get(index) & mask) == 0) {
+                words.accumulateAndGet(index, mask, (word, m) -> word | m);
+            }
+        }
+    }
+
+    public boolean mightContain(long high, long low) {
+        long h1 = mix(high);
+        long h2 = mix(low) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return memory used by the bit array, in bytes
+     */
+    public long sizeInBytes() {
+        return bitCount / 8;
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb3f99a5ed3fbL;
+        value ^= value >>> 33;
+        return value;
+    }
+}
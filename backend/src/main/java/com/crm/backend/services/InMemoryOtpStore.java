@@ -0,0 +1,242 @@
+package com.crm.backend.services;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.crm.backend.entity.Otp;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Heap-only {@link OtpStore} for single-node or sticky-routed deployments.
+ *
+ * Codes are kept in a concurrent map keyed by email and role, so issuing a
+ * new code replaces the previous one for that pair. The new entry remembers
+ * the one it replaced, so discarding a code whose email could not be queued
+ * brings back the code that was already sent. Consuming a code removes
+ * the entry with an atomic compare-and-remove, which makes each code
+ * single-use without locks. Every entry is also scheduled on a timer wheel;
+ * a sweeper thread advances the wheel once per tick and drops the entries
+ * whose slot has come up. The number of scheduled entries is capped and,
+ * when the cap is reached, the entries closest to expiry are evicted first.
+ *
+ * Lookups without a role are not supported and never match.
+ */
+@Component
+@ConditionalOnProperty(name = "crm.otp.store", havingValue = "memory")
+@Slf4j
+public class InMemoryOtpStore implements OtpStore {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry>[] wheel;
+    private final int wheelMask;
+    private final AtomicInteger scheduled = new AtomicInteger();
+    private final long tickMillis;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long startMillis = System.currentTimeMillis();
+    private final ScheduledExecutorService sweeper;
+
+    private volatile long lastSweptTick;
+
+    @SuppressWarnings("unchecked")
+    public InMemoryOtpStore(
+            @Value("${crm.otp.store.ttl-seconds:300}") long ttlSeconds,
+            @Value("${crm.otp.store.tick-ms:1000}") long tickMillis,
+            @Value("${crm.otp.store.max-entries:200000}") int maxEntries) {
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.tickMillis = tickMillis;
+        this.maxEntries = maxEntries;
+
+        // One slot per tick of the TTL plus slack, rounded up to a power of two
+        int slots = Integer.highestOneBit((int) (ttlMillis / tickMillis) + 2) << 1;
+        this.wheel = new ConcurrentLinkedQueue[slots];
+        for (int i = 0; i < slots; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.wheelMask = slots - 1;
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "otp-store-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleAtFixedRate(this::sweep, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    @Override
+    public void save(String email, String role, Long otpValue, LocalDateTime createdAt) {
+        long expiresAtMillis = System.currentTimeMillis() + ttlMillis;
+        Entry entry = entries.compute(key(email, role), (key, current) -> new Entry(key, email, role, otpValue,
+                createdAt, expiresAtMillis, current == null ? null : current.withoutReplaced()));
+        schedule(entry);
+    }
+
+    /**
+     * Puts back the code the discarded one replaced, unless it has expired.
+     * The wheel keeps the discarded entry until its slot comes up; the sweep
+     * drops it then, as it does for consumed entries.
+     */
+    @Override
+    public void discard(String email, String role, Long otpValue) {
+        String key = key(email, role);
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.otp().equals(otpValue)) {
+            return;
+        }
+        Entry replaced = entry.replaced();
+        if (replaced == null || isExpired(replaced, System.currentTimeMillis())) {
+            entries.remove(key, entry);
+        } else if (entries.replace(key, entry, replaced)) {
+            // A copy of the replaced entry, so it is scheduled on its own
+            schedule(replaced);
+        }
+    }
+
+    @Override
+    public Otp find(String email, String role, Long otpValue) {
+        if (role == null) {
+            return null;
+        }
+        Entry entry = entries.get(key(email, role));
+        if (entry == null || !entry.otp().equals(otpValue) || isExpired(entry, System.currentTimeMillis())) {
+            return null;
+        }
+
+        Otp otp = new Otp();
+        otp.setUserEmail(entry.email());
+        otp.setUserRole(entry.role());
+        otp.setOtp(entry.otp());
+        otp.setCreatedAt(entry.createdAt());
+        otp.setUsed(false);
+        return otp;
+    }
+
+    @Override
+    public OtpVerification consume(String email, String role, Long otpValue, LocalDateTime validAfter) {
+        if (role == null) {
+            return OtpVerification.NOT_FOUND;
+        }
+        String key = key(email, role);
+        Entry entry = entries.get(key);
+        // Used codes are removed, so a replayed code looks the same as an unknown one
+        if (entry == null || !entry.otp().equals(otpValue)) {
+            return OtpVerification.NOT_FOUND;
+        }
+        if (!entry.createdAt().isAfter(validAfter) || isExpired(entry, System.currentTimeMillis())) {
+            return OtpVerification.EXPIRED;
+        }
+        // Only one concurrent caller can remove this exact entry
+        return entries.remove(key, entry) ? OtpVerification.VERIFIED : OtpVerification.ALREADY_USED;
+    }
+
+    @Override
+    public void purgeExpired(LocalDateTime cutoff) {
+        entries.values().removeIf(entry -> entry.createdAt().isBefore(cutoff));
+    }
+
+    @Override
+    public long size() {
+        return entries.size();
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private static String key(String email, String role) {
+        return email + '\u0000' + role;
+    }
+
+    private void schedule(Entry entry) {
+        wheel[(int) (tickOf(entry.expiresAtMillis()) & wheelMask)].add(entry);
+
+        if (scheduled.incrementAndGet() > maxEntries) {
+            evictSoonestExpiring();
+        }
+    }
+
+    private long tickOf(long epochMillis) {
+        return (epochMillis - startMillis) / tickMillis;
+    }
+
+    private static boolean isExpired(Entry entry, long nowMillis) {
+        return entry.expiresAtMillis() <= nowMillis;
+    }
+
+    /**
+     * Advances the wheel through the ticks that have fully elapsed and
+     * drops their entries, so an entry is removed at most one tick after it
+     * expires. The tick in progress is left for the next run: its entries
+     * are not all due yet, and re-queueing them would hide them for a whole
+     * turn of the wheel. Entries that were replaced or consumed in the
+     * meantime are discarded from the slot as well. An entry still queued
+     * in a swept slot belongs to a later turn and stays.
+     */
+    private void sweep() {
+        try {
+            long nowMillis = System.currentTimeMillis();
+            long nowTick = tickOf(nowMillis);
+            for (long tick = lastSweptTick + 1; tick < nowTick; tick++) {
+                ConcurrentLinkedQueue<Entry> slot = wheel[(int) (tick & wheelMask)];
+                int pending = slot.size();
+                for (int i = 0; i < pending; i++) {
+                    Entry entry = slot.poll();
+                    if (entry == null) {
+                        break;
+                    }
+                    if (isExpired(entry, nowMillis) || entries.get(entry.key()) != entry) {
+                        scheduled.decrementAndGet();
+                        entries.remove(entry.key(), entry);
+                    } else {
+                        slot.add(entry);
+                    }
+                }
+                lastSweptTick = tick;
+            }
+        } catch (RuntimeException e) {
+            log.error("OTP store sweep failed", e);
+        }
+    }
+
+    /**
+     * Walks the wheel from the next slot due and evicts entries until the
+     * number of scheduled entries is back under the cap.
+     */
+    private void evictSoonestExpiring() {
+        long tick = lastSweptTick + 1;
+        for (int visited = 0; visited <= wheelMask && scheduled.get() > maxEntries; visited++, tick++) {
+            ConcurrentLinkedQueue<Entry> slot = wheel[(int) (tick & wheelMask)];
+            Entry entry;
+            while (scheduled.get() > maxEntries && (entry = slot.poll()) != null) {
+                scheduled.decrementAndGet();
+                entries.remove(entry.key(), entry);
+            }
+        }
+    }
+
+    /**
+     * @param replaced The unexpired entry this one replaced, without its own
+     *                 {@code replaced}, so resends never build a chain
+     */
+    private record Entry(String key, String email, String role, Long otp,
+            LocalDateTime createdAt, long expiresAtMillis, Entry replaced) {
+
+        Entry withoutReplaced() {
+            return new Entry(key, email, role, otp, createdAt, expiresAtMillis, null);
+        }
+    }
+}
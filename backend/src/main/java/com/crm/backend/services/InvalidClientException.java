@@ -0,0 +1,12 @@
+package com.crm.backend.services;
+
+/**
+ * Thrown when a service calling the token introspection endpoint does not
+ * present valid client credentials.
+ */
+public class InvalidClientException extends RuntimeException {
+
+    public InvalidClientException() {
+        super("Invalid client credentials");
+    }
+}
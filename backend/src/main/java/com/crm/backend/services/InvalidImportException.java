@@ -0,0 +1,12 @@
+package com.crm.backend.services;
+
+/**
+ * Thrown when a bulk import upload cannot be read at all, for example a CSV
+ * file without the required header columns.
+ */
+public class InvalidImportException extends RuntimeException {
+
+    public InvalidImportException(String message) {
+        super(message);
+    }
+}
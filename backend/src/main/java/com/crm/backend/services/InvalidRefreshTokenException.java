@@ -0,0 +1,12 @@
+package com.crm.backend.services;
+
+/**
+ * Thrown when a refresh token cannot be exchanged: it is malformed,
+ * expired, not the latest of its chain, or its session was revoked.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException() {
+        super("Invalid or expired refresh token");
+    }
+}
@@ -0,0 +1,54 @@
+package com.crm.backend.services;
+
+import java.sql.Types;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Appends audit batches to the {@code Auth_Audit} table, one multi-row
+ * {@code INSERT} per batch.
+ */
+class JdbcAuthAuditSink implements AuthAuditSink {
+
+    private static final String INSERT = "INSERT INTO auth_audit (occurred_at, event_code, role_code, email) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    // A full batch is the common case under load; its statement is built once
+    private final String fullBatchSql;
+
+    JdbcAuthAuditSink(JdbcTemplate jdbcTemplate, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.fullBatchSql = insertSql(batchSize);
+    }
+
+    @Override
+    public void write(Batch batch) {
+        int size = batch.size;
+        jdbcTemplate.update(size == batchSize ? fullBatchSql : insertSql(size), ps -> {
+            int p = 1;
+            for (int i = 0; i < size; i++) {
+                ps.setLong(p++, batch.occurredAt[i]);
+                ps.setByte(p++, batch.events[i]);
+                if (batch.roles[i] < 0) {
+                    ps.setNull(p++, Types.TINYINT);
+                } else {
+                    ps.setByte(p++, batch.roles[i]);
+                }
+                ps.setString(p++, batch.emails[i]);
+            }
+        });
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT.length() + rows * (ROW.length() + 2)).append(INSERT);
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(ROW);
+        }
+        return sql.toString();
+    }
+}
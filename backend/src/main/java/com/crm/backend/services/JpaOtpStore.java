@@ -0,0 +1,111 @@
+package com.crm.backend.services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.crm.backend.entity.Otp;
+import com.crm.backend.repository.OtpRepo;
+import com.crm.backend.repository.OtpRepo.OtpState;
+
+/**
+ * {@link OtpStore} backed by the {@code Otp_Store} table.
+ */
+@Component
+@ConditionalOnProperty(name = "crm.otp.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaOtpStore implements OtpStore {
+
+    @Autowired
+    private OtpRepo otpRepo;
+
+    @Autowired
+    private OtpPurgeService otpPurgeService;
+
+    private volatile long size;
+
+    @Override
+    public void save(String email, String role, Long otpValue, LocalDateTime createdAt) {
+        Otp otp = new Otp();
+        otp.setUserEmail(email);
+        otp.setUserRole(role);
+        otp.setOtp(otpValue);
+        otp.setCreatedAt(createdAt);
+        otp.setUsed(false);
+        otpRepo.save(otp);
+    }
+
+    /**
+     * Only needed outside a transaction: within one, the failure that leads
+     * here rolls the insert back anyway.
+     */
+    @Override
+    @Transactional
+    public void discard(String email, String role, Long otpValue) {
+        Otp otp = find(email, role, otpValue);
+        if (otp != null && !otp.isUsed()) {
+            otpRepo.delete(otp);
+        }
+    }
+
+    @Override
+    public Otp find(String email, String role, Long otpValue) {
+        Otp otp = otpRepo.findByUserEmailAndOtp(email, otpValue);
+        if (otp == null || (role != null && !role.equals(otp.getUserRole()))) {
+            return null;
+        }
+        return otp;
+    }
+
+    /**
+     * Checks and consumes the code with a single conditional UPDATE. Only a
+     * rejected code costs a second query, to report why it was rejected.
+     */
+    @Override
+    @Transactional
+    public OtpVerification consume(String email, String role, Long otpValue, LocalDateTime validAfter) {
+        if (otpRepo.consume(email, otpValue, role, validAfter) > 0) {
+            return OtpVerification.VERIFIED;
+        }
+
+        List<OtpState> states = otpRepo.findStates(email, otpValue, Limit.of(1));
+        if (states.isEmpty()) {
+            return OtpVerification.NOT_FOUND;
+        }
+        OtpState state = states.get(0);
+        if (role != null && !role.equals(state.getUserRole())) {
+            return OtpVerification.ROLE_MISMATCH;
+        }
+        if (state.isUsed()) {
+            return OtpVerification.ALREADY_USED;
+        }
+        return OtpVerification.EXPIRED;
+    }
+
+    /**
+     * Deletes in bounded batches, each in its own transaction.
+     */
+    @Override
+    public void purgeExpired(LocalDateTime cutoff) {
+        otpPurgeService.purgeBefore(cutoff);
+    }
+
+    /**
+     * Returns the row count as of the last refresh, so a metrics scrape
+     * never runs a {@code COUNT(*)} over the table.
+     */
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Scheduled(fixedDelayString = "${crm.otp.store.size-refresh-ms:30000}")
+    public void refreshSize() {
+        size = otpRepo.count();
+    }
+}
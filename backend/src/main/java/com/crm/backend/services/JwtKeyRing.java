@@ -0,0 +1,282 @@
+package com.crm.backend.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.SecretKey;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Set of JWT signing and verification keys shared by every node.
+ *
+ * Keys come from {@code crm.jwt.keys} (HMAC secrets as
+ * {@code kid:base64[@activation-instant]}, comma separated) and/or a
+ * PKCS12 keystore at {@code crm.jwt.keystore.path}. In the keystore the
+ * alias is the {@code kid} and the entry creation date is the activation
+ * time. Secret entries sign with HMAC, EC private key entries sign with
+ * ES256/ES384, and trusted certificates only verify.
+ *
+ * The newest key whose activation time has passed signs new tokens. A key
+ * that has been superseded keeps verifying for {@code crm.jwt.key-overlap}
+ * (by default the refresh token lifetime) and is then dropped. Keys that are
+ * not active yet already verify, so nodes whose clocks disagree slightly
+ * still accept each other's tokens. The ring is re-evaluated, and the
+ * keystore reloaded if it changed, every {@code crm.jwt.rotation-check-ms}.
+ *
+ * Every token carries its {@code kid} header and is verified with a single
+ * map lookup. When nothing is configured a random per-process key is used,
+ * which is only suitable for a single node.
+ */
+@Component
+@Slf4j
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    private final String configuredKeys;
+    private final Path keystorePath;
+    private final char[] keystorePassword;
+    private final Duration overlap;
+    private final List<JwtKey> ephemeralKeys;
+
+    private volatile long keystoreModified = -1;
+    private volatile List<JwtKey> loadedKeys = List.of();
+    private volatile Map<String, JwtKey> verificationKeys = Map.of();
+    private volatile JwtKey activeKey;
+
+    public JwtKeyRing(
+            @Value("${crm.jwt.keys:}") String configuredKeys,
+            @Value("${crm.jwt.keystore.path:}") String keystorePath,
+            @Value("${crm.jwt.keystore.password:}") String keystorePassword,
+            @Value("${crm.jwt.key-overlap:P7D}") Duration overlap) {
+        this.configuredKeys = configuredKeys;
+        this.keystorePath = StringUtils.hasText(keystorePath) ? Path.of(keystorePath) : null;
+        this.keystorePassword = keystorePassword.toCharArray();
+        this.overlap = overlap;
+
+        if (!StringUtils.hasText(configuredKeys) && this.keystorePath == null) {
+            log.warn("No JWT keys configured (crm.jwt.keys or crm.jwt.keystore.path); "
+                    + "using a random key, tokens will not validate on other nodes or after a restart");
+            SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+            this.ephemeralKeys = List.of(new JwtKey("ephemeral", SignatureAlgorithm.HS256, key, key, Instant.EPOCH));
+        } else {
+            this.ephemeralKeys = List.of();
+        }
+        refresh();
+        if (activeKey == null) {
+            throw new IllegalStateException("No JWT signing key is active");
+        }
+    }
+
+    /**
+     * Ring with a single random HMAC key, for tests and benchmarks.
+     */
+    public static JwtKeyRing ephemeral() {
+        return new JwtKeyRing("", "", "", Duration.ofDays(7));
+    }
+
+    /**
+     * @return the key new tokens are signed with
+     */
+    public JwtKey activeKey() {
+        return activeKey;
+    }
+
+    /**
+     * @return every key that currently verifies tokens, by kid
+     */
+    public Map<String, JwtKey> verificationKeys() {
+        return verificationKeys;
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            throw new UnsupportedJwtException("Token has no kid header");
+        }
+        JwtKey key = verificationKeys.get(kid);
+        if (key == null) {
+            throw new SignatureException("Unknown or retired signing key: " + kid);
+        }
+        // The algorithm is bound to the key, never taken from the token alone
+        if (!key.algorithm().getValue().equals(header.getAlgorithm())) {
+            throw new SignatureException("Algorithm " + header.getAlgorithm() + " does not match key " + kid);
+        }
+        return key.verificationKey();
+    }
+
+    /**
+     * Reloads the keystore if it changed and recomputes the active key and
+     * the set of verification keys.
+     */
+    @Scheduled(fixedDelayString = "${crm.jwt.rotation-check-ms:60000}",
+            initialDelayString = "${crm.jwt.rotation-check-ms:60000}")
+    public void refresh() {
+        try {
+            reloadIfChanged();
+        } catch (IOException | GeneralSecurityException e) {
+            if (activeKey == null) {
+                throw new IllegalStateException("Cannot load JWT keys", e);
+            }
+            log.error("Cannot reload JWT keystore {}, keeping the current keys", keystorePath, e);
+        }
+
+        Instant now = Instant.now();
+        List<JwtKey> signingKeys = new ArrayList<>();
+        Map<String, JwtKey> verifying = new HashMap<>();
+        for (JwtKey key : loadedKeys) {
+            if (key.canSign()) {
+                signingKeys.add(key);
+            } else {
+                verifying.put(key.kid(), key);
+            }
+        }
+        signingKeys.sort(Comparator.comparing(JwtKey::activeFrom));
+
+        JwtKey active = null;
+        for (int i = 0; i < signingKeys.size(); i++) {
+            JwtKey key = signingKeys.get(i);
+            if (!key.activeFrom().isAfter(now)) {
+                active = key;
+            }
+            Instant supersededAt = i + 1 < signingKeys.size() ? signingKeys.get(i + 1).activeFrom() : null;
+            if (supersededAt == null || supersededAt.plus(overlap).isAfter(now)) {
+                verifying.put(key.kid(), key);
+            }
+        }
+
+        if (active != null && (activeKey == null || !active.kid().equals(activeKey.kid()))) {
+            log.info("JWT signing key is now {} ({})", active.kid(), active.algorithm());
+        }
+        if (active != null) {
+            activeKey = active;
+        }
+        verificationKeys = Collections.unmodifiableMap(verifying);
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private void reloadIfChanged() throws IOException, GeneralSecurityException {
+        long modified = keystorePath != null ? Files.getLastModifiedTime(keystorePath).toMillis() : 0;
+        if (modified == keystoreModified) {
+            return;
+        }
+        List<JwtKey> keys = new ArrayList<>(ephemeralKeys);
+        keys.addAll(parseConfiguredKeys(configuredKeys));
+        if (keystorePath != null) {
+            keys.addAll(loadKeystore());
+        }
+        loadedKeys = List.copyOf(keys);
+        keystoreModified = modified;
+    }
+
+    private static List<JwtKey> parseConfiguredKeys(String value) {
+        List<JwtKey> keys = new ArrayList<>();
+        for (String entry : StringUtils.commaDelimitedListToStringArray(value)) {
+            entry = entry.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            int colon = entry.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("crm.jwt.keys entries must be kid:base64secret[@instant]");
+            }
+            String kid = entry.substring(0, colon);
+            String secret = entry.substring(colon + 1);
+            Instant activeFrom = Instant.EPOCH;
+            int at = secret.indexOf('@');
+            if (at >= 0) {
+                activeFrom = Instant.parse(secret.substring(at + 1));
+                secret = secret.substring(0, at);
+            }
+            SecretKey key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret));
+            keys.add(new JwtKey(kid, SignatureAlgorithm.forSigningKey(key), key, key, activeFrom));
+        }
+        return keys;
+    }
+
+    private List<JwtKey> loadKeystore() throws IOException, GeneralSecurityException {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(keystorePath)) {
+            keyStore.load(in, keystorePassword);
+        }
+
+        List<JwtKey> keys = new ArrayList<>();
+        for (String alias : Collections.list(keyStore.aliases())) {
+            Instant activeFrom = keyStore.getCreationDate(alias).toInstant();
+            if (keyStore.isKeyEntry(alias)) {
+                Key key = keyStore.getKey(alias, keystorePassword);
+                if (key instanceof SecretKey secretKey) {
+                    keys.add(new JwtKey(alias, SignatureAlgorithm.forSigningKey(secretKey), secretKey, secretKey, activeFrom));
+                } else if (key instanceof PrivateKey privateKey) {
+                    PublicKey publicKey = keyStore.getCertificate(alias).getPublicKey();
+                    keys.add(new JwtKey(alias, SignatureAlgorithm.forSigningKey(privateKey), privateKey, publicKey, activeFrom));
+                }
+            } else {
+                Certificate certificate = keyStore.getCertificate(alias);
+                PublicKey publicKey = certificate.getPublicKey();
+                keys.add(new JwtKey(alias, verificationAlgorithm(publicKey), null, publicKey, activeFrom));
+            }
+        }
+        return keys;
+    }
+
+    private static SignatureAlgorithm verificationAlgorithm(PublicKey publicKey) {
+        if (publicKey instanceof ECPublicKey ec) {
+            int bits = ec.getParams().getCurve().getField().getFieldSize();
+            return bits <= 256 ? SignatureAlgorithm.ES256 : bits <= 384 ? SignatureAlgorithm.ES384 : SignatureAlgorithm.ES512;
+        }
+        return SignatureAlgorithm.RS256;
+    }
+
+    /**
+     * One key in the ring.
+     *
+     * @param kid Key id written to the token header
+     * @param algorithm Signature algorithm bound to the key
+     * @param signingKey Secret or private key, or null for verify-only keys
+     * @param verificationKey Secret or public key
+     * @param activeFrom Time from which the key signs new tokens
+     */
+    public record JwtKey(String kid, SignatureAlgorithm algorithm, Key signingKey, Key verificationKey,
+            Instant activeFrom) {
+
+        public boolean canSign() {
+            return signingKey != null;
+        }
+
+        public boolean isAsymmetric() {
+            return verificationKey instanceof PublicKey;
+        }
+    }
+}
@@ -1,57 +1,207 @@
 package com.crm.backend.services;
 
-import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.UUID;
 
 import org.springframework.stereotype.Service;
 
+import com.crm.backend.dto.RefreshTokenClaims;
+import com.crm.backend.dto.TokenClaims;
+import com.crm.backend.services.JwtKeyRing.JwtKey;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Service
 public class JwtService {
 
-    private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    private static final String TYPE_CLAIM = "typ";
+    private static final String ROLE_CODE_CLAIM = "rl";
+    // Role name claim of tokens issued before role codes; still read until they expire
+    private static final String LEGACY_ROLE_CLAIM = "role";
+    private static final String FAMILY_CLAIM = "fid";
+    private static final String GENERATION_CLAIM = "gen";
+    private static final String ACCESS_TYPE = "access";
+    private static final String REFRESH_TYPE = "refresh";
+
+    private final JwtKeyRing keyRing;
     private final long accessTokenExpiration = 1000 * 60 * 15; // 15 minutes
     private final long refreshTokenExpiration = 1000 * 60 * 60 * 24 * 7; // 7 days
 
-    public String generateAccessToken(String email, String role) {
-        return Jwts.builder()
+    // JwtParser is immutable and thread-safe, so one instance serves every request;
+    // the verification key is looked up per token by its kid
+    private final JwtParser parser;
+
+    private final Timer accessIssueTimer;
+    private final Timer refreshIssueTimer;
+    private final Timer validateTimer;
+    private final Counter invalidTokenCounter;
+
+    public JwtService(JwtKeyRing keyRing, MeterRegistry meterRegistry) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(keyRing).build();
+        this.accessIssueTimer = issueTimer(meterRegistry, "access");
+        this.refreshIssueTimer = issueTimer(meterRegistry, "refresh");
+        this.validateTimer = Timer.builder("jwt.validate")
+                .description("Time to verify a token signature and parse its claims")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.invalidTokenCounter = Counter.builder("jwt.validate.invalid")
+                .description("Tokens rejected for a bad signature, bad format or expiry")
+                .register(meterRegistry);
+    }
+
+    public String generateAccessToken(String email, Role role) {
+        return generateAccessToken(email, role, null);
+    }
+
+    /**
+     * Issues an access token bound to a login session, so that revoking the
+     * session also rejects its outstanding access tokens.
+     *
+     * @param email User email
+     * @param role User role
+     * @param familyId Session id, or null for a token outside any session
+     * @return compact JWS string
+     */
+    public String generateAccessToken(String email, Role role, String familyId) {
+        return accessIssueTimer.record(() -> signedBuilder()
                 .setSubject(email)
-                .claim("role", role)
+                .claim(TYPE_CLAIM, ACCESS_TYPE)
+                .claim(ROLE_CODE_CLAIM, role.code())
+                .claim(FAMILY_CLAIM, familyId)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + accessTokenExpiration))
-                .signWith(key)
-                .compact();
+                .compact());
     }
 
-    public String generateRefreshToken(String email) {
-        return Jwts.builder()
+    /**
+     * Issues a refresh token for one step of a session's rotation chain.
+     *
+     * @param email User email
+     * @param role User role
+     * @param familyId Session id shared by every token of the chain
+     * @param generation Position in the chain; only the latest one can be exchanged
+     * @return compact JWS string
+     */
+    public String generateRefreshToken(String email, Role role, String familyId, int generation) {
+        return refreshIssueTimer.record(() -> signedBuilder()
                 .setSubject(email)
+                .setId(UUID.randomUUID().toString())
+                .claim(TYPE_CLAIM, REFRESH_TYPE)
+                .claim(ROLE_CODE_CLAIM, role.code())
+                .claim(FAMILY_CLAIM, familyId)
+                .claim(GENERATION_CLAIM, generation)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + refreshTokenExpiration))
-                .signWith(key)
-                .compact();
+                .compact());
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * @return lifetime of refresh tokens, which is also how long a session stays open without use
+     */
+    public Duration getRefreshTokenLifetime() {
+        return Duration.ofMillis(refreshTokenExpiration);
+    }
+
+    /**
+     * Verifies the signature and expiry of a token and extracts its claims
+     * in a single parse.
+     *
+     * @param token Compact JWS string
+     * @return the verified claims, or null if the token is invalid, expired or has no known role
+     */
+    public TokenClaims verify(String token) {
+        Timer.Sample sample = Timer.start();
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (JwtException e) {
-            return false;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Role role = role(claims);
+            // Refresh tokens are only accepted by the refresh endpoint
+            if (role == null || REFRESH_TYPE.equals(claims.get(TYPE_CLAIM, String.class))) {
+                invalidTokenCounter.increment();
+                return null;
+            }
+            return new TokenClaims(
+                    claims.getSubject(),
+                    role,
+                    claims.getExpiration().toInstant(),
+                    claims.get(FAMILY_CLAIM, String.class));
+        } catch (JwtException | IllegalArgumentException e) {
+            invalidTokenCounter.increment();
+            return null;
+        } finally {
+            sample.stop(validateTimer);
         }
     }
 
+    /**
+     * Verifies a refresh token and extracts its rotation claims.
+     *
+     * @param token Compact JWS string
+     * @return the verified claims, or null if the token is invalid, expired or not a refresh token
+     */
+    public RefreshTokenClaims verifyRefreshToken(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Integer generation = claims.get(GENERATION_CLAIM, Integer.class);
+            String familyId = claims.get(FAMILY_CLAIM, String.class);
+            Role role = role(claims);
+            if (!REFRESH_TYPE.equals(claims.get(TYPE_CLAIM, String.class)) || familyId == null || generation == null
+                    || role == null) {
+                return null;
+            }
+            return new RefreshTokenClaims(
+                    claims.getSubject(),
+                    role,
+                    familyId,
+                    generation,
+                    claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public boolean validateToken(String token) {
+        return verify(token) != null;
+    }
+
     public String getEmailFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public String getRoleFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody().get("role", String.class);
+        Role role = role(parser.parseClaimsJws(token).getBody());
+        return role != null ? role.getAuthority() : null;
+    }
+
+    private static Role role(Claims claims) {
+        Integer code = claims.get(ROLE_CODE_CLAIM, Integer.class);
+        return code != null ? Role.fromCode(code) : Role.fromName(claims.get(LEGACY_ROLE_CLAIM, String.class));
+    }
+
+    /**
+     * Starts a token signed with the ring's active key and tagged with its kid.
+     */
+    private JwtBuilder signedBuilder() {
+        JwtKey key = keyRing.activeKey();
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, key.kid())
+                .signWith(key.signingKey(), key.algorithm());
+    }
+
+    private static Timer issueTimer(MeterRegistry meterRegistry, String type) {
+        return Timer.builder("jwt.issue")
+                .description("Time to build and sign a token")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,92 @@
+package com.crm.backend.services;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crm.backend.entity.SchedulerLease;
+import com.crm.backend.repository.SchedulerLeaseRepo;
+
+/**
+ * Database-backed leases that let exactly one node run a named background
+ * job at a time. A lease is taken with a single conditional UPDATE and
+ * expires on its own if the holder dies.
+ */
+@Service
+public class LeaseService {
+
+    private final SchedulerLeaseRepo leaseRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final String ownerId;
+
+    @Autowired
+    public LeaseService(SchedulerLeaseRepo leaseRepo, PlatformTransactionManager transactionManager) {
+        this.leaseRepo = leaseRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ownerId = hostName() + ":" + UUID.randomUUID();
+    }
+
+    /**
+     * Takes or renews the named lease.
+     *
+     * @param name Lease name
+     * @param ttl How long the lease is held unless renewed or released
+     * @return true if this node now holds the lease
+     */
+    public boolean tryAcquire(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(ttl);
+
+        Integer updated = transactionTemplate.execute(status -> leaseRepo.tryAcquire(name, ownerId, now, until));
+        if (updated != null && updated > 0) {
+            return true;
+        }
+
+        // First use of this lease name: create the row, losing gracefully to a concurrent node
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (leaseRepo.existsById(name)) {
+                    return false;
+                }
+                leaseRepo.saveAndFlush(new SchedulerLease(name, ownerId, until));
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gives the lease up early so another node can take it.
+     *
+     * @param name Lease name
+     */
+    public void release(String name) {
+        transactionTemplate.executeWithoutResult(status -> leaseRepo.release(name, ownerId, LocalDateTime.now()));
+    }
+
+    /**
+     * @return identifier of this node in lease rows
+     */
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+}
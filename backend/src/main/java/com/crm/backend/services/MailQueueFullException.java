@@ -0,0 +1,12 @@
+package com.crm.backend.services;
+
+/**
+ * Thrown when the OTP mail dispatch queue has no free capacity and a new
+ * message has to be shed instead of blocking the request thread.
+ */
+public class MailQueueFullException extends RuntimeException {
+
+    public MailQueueFullException() {
+        super("OTP mail queue is full, please retry shortly");
+    }
+}
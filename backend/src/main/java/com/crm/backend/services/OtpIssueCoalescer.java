@@ -0,0 +1,114 @@
+package com.crm.backend.services;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BooleanSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Makes OTP generation idempotent per email and role for
+ * {@code crm.otp.generate.idempotency-window-seconds}.
+ *
+ * The first request for a key issues the OTP. Requests for the same key
+ * that arrive while it is running wait for it and share its result,
+ * including its exception, and requests within the window after it
+ * succeeded are answered from memory. Neither writes another
+ * {@code Otp_Store} row or sends another email: the code already on its
+ * way stays valid, which is what a double click or a client retry after a
+ * timeout wants. Failed or rejected issues are not remembered, so a retry
+ * after one tries again. The window is per node; duplicates that reach
+ * different nodes each issue a code, as before.
+ *
+ * The issue runs on the calling thread outside the cache's locks, so a
+ * slow database never holds up requests for other keys.
+ */
+@Service
+public class OtpIssueCoalescer {
+
+    public enum Outcome {
+
+        /** This request issued a new OTP. */
+        ISSUED,
+
+        /** An OTP issued for a duplicate request, in flight or recent, is reused. */
+        COALESCED,
+
+        /** The issuer declined, for example because the user does not exist. */
+        REJECTED
+    }
+
+    private final AsyncCache<IssueKey, Boolean> issued;
+
+    public OtpIssueCoalescer(
+            @Value("${crm.otp.generate.idempotency-window-seconds:30}") long windowSeconds,
+            @Value("${crm.otp.generate.idempotency-max-keys:100000}") long maxKeys) {
+        this.issued = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(Duration.ofSeconds(windowSeconds))
+                .buildAsync();
+    }
+
+    /**
+     * Issues an OTP for the email and role unless one was issued, or is
+     * being issued, within the window.
+     *
+     * @param userEmail Email address the OTP is for
+     * @param userRole Role the OTP is for
+     * @param issuer Issues the OTP; returns false if it cannot be issued
+     * @return how the request was served
+     */
+    public Outcome issue(String userEmail, String userRole, BooleanSupplier issuer) {
+        IssueKey key = new IssueKey(userEmail, userRole);
+        CompletableFuture<Boolean> own = new CompletableFuture<>();
+        CompletableFuture<Boolean> shared = issued.get(key, (k, executor) -> own);
+        if (shared != own) {
+            return join(shared) ? Outcome.COALESCED : Outcome.REJECTED;
+        }
+
+        try {
+            boolean success = issuer.getAsBoolean();
+            if (!success) {
+                issued.asMap().remove(key, own);
+            }
+            own.complete(success);
+            return success ? Outcome.ISSUED : Outcome.REJECTED;
+        } catch (RuntimeException | Error e) {
+            // Caffeine drops futures that complete exceptionally
+            own.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Forgets the OTP issued for the email and role, so the next request
+     * issues a new one. Called once the OTP has been used.
+     *
+     * @param userEmail Email address the OTP was for
+     * @param userRole Role the OTP was for
+     */
+    public void forget(String userEmail, String userRole) {
+        issued.synchronous().invalidate(new IssueKey(userEmail, userRole));
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private static boolean join(CompletableFuture<Boolean> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record IssueKey(String email, String role) {
+    }
+}
@@ -0,0 +1,252 @@
+package com.crm.backend.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Asynchronous dispatcher for OTP emails.
+ *
+ * Request threads only build the message and offer it to a bounded queue.
+ * A small pool of worker threads drains the queue in batches and hands each
+ * batch to {@link JavaMailSender#send(SimpleMailMessage...)}, which delivers
+ * the whole batch over a single SMTP connection. Failed messages are retried
+ * with exponential backoff; when the queue is full new messages are rejected
+ * with {@link MailQueueFullException} so callers can shed load.
+ *
+ * Workers are virtual threads when {@code crm.otp.mail.virtual-threads}
+ * (which follows {@code spring.threads.virtual.enabled}) is set and the JVM
+ * supports them. Angus Mail's SMTP transport synchronizes around socket I/O,
+ * which pins each worker to a carrier thread while it talks to the server,
+ * so the worker count should stay well below the number of CPUs.
+ */
+@Service
+@Slf4j
+public class OtpMailDispatcher {
+
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final JavaMailSender javaMailSender;
+    private final BlockingQueue<SimpleMailMessage> queue;
+    private final int workerCount;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final String fromAddress;
+    private final ThreadFactory threadFactory;
+    private final List<Thread> workers = new ArrayList<>();
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter droppedCounter;
+
+    private volatile boolean running;
+
+    public OtpMailDispatcher(JavaMailSender javaMailSender, MeterRegistry meterRegistry,
+            @Value("${crm.otp.mail.queue-capacity:10000}") int queueCapacity,
+            @Value("${crm.otp.mail.workers:4}") int workerCount,
+            @Value("${crm.otp.mail.batch-size:50}") int batchSize,
+            @Value("${crm.otp.mail.max-attempts:5}") int maxAttempts,
+            @Value("${crm.otp.mail.initial-backoff-ms:200}") long initialBackoffMillis,
+            @Value("${crm.otp.mail.from:regenxscout@regensportz.com}") String fromAddress,
+            @Value("${crm.otp.mail.virtual-threads:${spring.threads.virtual.enabled:false}}") boolean virtualThreads) {
+        this.javaMailSender = javaMailSender;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.fromAddress = fromAddress;
+        this.threadFactory = workerThreadFactory("otp-mail-", virtualThreads);
+        this.sendTimer = Timer.builder("otp.mail.send")
+                .description("Time to hand one batch of OTP emails to the SMTP server")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sentCounter = messageCounter(meterRegistry, "sent");
+        this.retriedCounter = messageCounter(meterRegistry, "retried");
+        this.droppedCounter = messageCounter(meterRegistry, "dropped");
+    }
+
+    /**
+     * Starts the worker threads that drain the queue.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = threadFactory.newThread(this::drainLoop);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Stops the workers after they have flushed whatever is still queued.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Discarding {} undelivered OTP emails on shutdown", queue.size());
+        }
+    }
+
+    /**
+     * Queues an OTP email for delivery without waiting for SMTP.
+     *
+     * @param toEmail Recipient email address
+     * @param otp OTP code to send
+     * @param userRole Role the OTP was issued for (can be null)
+     * @throws MailQueueFullException if the queue has no free capacity
+     */
+    public void dispatchOtp(String toEmail, String otp, String userRole) {
+        if (!queue.offer(otpMessage(toEmail, otp, userRole))) {
+            throw new MailQueueFullException();
+        }
+    }
+
+    /**
+     * Cheap pre-check so callers can shed load before doing any other work.
+     *
+     * @return true if at least one more message fits in the queue
+     */
+    public boolean hasCapacity() {
+        return queue.remainingCapacity() > 0;
+    }
+
+    /**
+     * @return number of messages waiting to be sent
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Builds the OTP email, also used by {@link OtpMailOutboxService}.
+     */
+    SimpleMailMessage otpMessage(String toEmail, String otp, String userRole) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromAddress);
+        message.setTo(toEmail);
+        message.setSubject("Your OTP Code");
+        message.setText(userRole == null
+            ? "Your OTP is: " + otp
+            : "Your OTP is: " + otp + "\n\nRole: " + userRole);
+        return message;
+    }
+
+    static ThreadFactory workerThreadFactory(String prefix, boolean virtualThreads) {
+        if (virtualThreads) {
+            if (JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+                return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+            }
+            log.warn("Virtual threads need Java 21 or later; {} workers use platform threads", prefix);
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + sequence.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private void drainLoop() {
+        List<SimpleMailMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                SimpleMailMessage first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sendWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Sends a batch, retrying only the messages that failed.
+     */
+    private void sendWithRetry(List<SimpleMailMessage> batch) throws InterruptedException {
+        List<SimpleMailMessage> pending = new ArrayList<>(batch);
+        long backoff = initialBackoffMillis;
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            Timer.Sample sample = Timer.start();
+            try {
+                javaMailSender.send(pending.toArray(new SimpleMailMessage[0]));
+                sentCounter.increment(pending.size());
+                return;
+            } catch (MailSendException e) {
+                List<SimpleMailMessage> failed = failedMessages(e.getFailedMessages());
+                if (!failed.isEmpty()) {
+                    sentCounter.increment(pending.size() - failed.size());
+                    pending = failed;
+                }
+                log.warn("Attempt {}/{} failed for {} OTP emails", attempt, maxAttempts, pending.size(), e);
+            } catch (MailException e) {
+                log.warn("Attempt {}/{} failed for {} OTP emails", attempt, maxAttempts, pending.size(), e);
+            } finally {
+                sample.stop(sendTimer);
+            }
+
+            if (attempt < maxAttempts) {
+                retriedCounter.increment(pending.size());
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+        droppedCounter.increment(pending.size());
+        log.error("Giving up on {} OTP emails after {} attempts", pending.size(), maxAttempts);
+    }
+
+    private static Counter messageCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("otp.mail.messages")
+                .description("OTP emails by delivery result")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private List<SimpleMailMessage> failedMessages(Map<Object, Exception> failures) {
+        List<SimpleMailMessage> failed = new ArrayList<>(failures.size());
+        for (Object message : failures.keySet()) {
+            if (message instanceof SimpleMailMessage simpleMessage) {
+                failed.add(simpleMessage);
+            }
+        }
+        return failed;
+    }
+}
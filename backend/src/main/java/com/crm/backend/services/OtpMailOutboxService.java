@@ -0,0 +1,349 @@
+package com.crm.backend.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crm.backend.entity.OtpMailOutbox;
+import com.crm.backend.entity.OtpMailOutbox.Status;
+import com.crm.backend.repository.OtpMailOutboxRepo;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Durable delivery of OTP emails through the {@code Otp_Mail_Outbox} table.
+ *
+ * {@link #enqueue} writes the email in the caller's transaction, so it is
+ * stored if and only if the OTP is. Drainer threads on every node claim due
+ * rows in batches with {@code SELECT ... FOR UPDATE SKIP LOCKED}, push each
+ * batch to the SMTP server over one connection and then mark the whole
+ * batch sent, or schedule a retry with exponential backoff, in one UPDATE.
+ * A claimed row is hidden for {@code crm.otp.outbox.claim-seconds}; if its
+ * node dies before marking it, another node sends it again, so delivery is
+ * at least once. Finished rows are deleted in batches by the holder of the
+ * {@code otp-outbox-purge} lease.
+ *
+ * Drainers wake up as soon as a local transaction that queued an email
+ * commits, and otherwise poll every {@code crm.otp.outbox.poll-ms} to pick
+ * up rows written by other nodes or due for a retry.
+ */
+@Service
+@ConditionalOnProperty(name = "crm.otp.store", havingValue = "jpa", matchIfMissing = true)
+@Slf4j
+public class OtpMailOutboxService {
+
+    private static final String LEASE_NAME = "otp-outbox-purge";
+    private static final long MAX_BACKOFF_MILLIS = 300_000;
+
+    private final OtpMailOutboxRepo outboxRepo;
+    private final OtpMailDispatcher otpMailDispatcher;
+    private final JavaMailSender javaMailSender;
+    private final LeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final int workerCount;
+    private final int batchSize;
+    private final long pollMillis;
+    private final long claimSeconds;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long retentionMinutes;
+    private final int purgeBatchSize;
+    private final ThreadFactory threadFactory;
+    private final Semaphore wakeUp = new Semaphore(0);
+    private final List<Thread> workers = new ArrayList<>();
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter droppedCounter;
+
+    private volatile boolean running;
+    private volatile long pendingCount;
+
+    public OtpMailOutboxService(OtpMailOutboxRepo outboxRepo, OtpMailDispatcher otpMailDispatcher,
+            JavaMailSender javaMailSender, LeaseService leaseService,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${crm.otp.outbox.workers:2}") int workerCount,
+            @Value("${crm.otp.outbox.batch-size:50}") int batchSize,
+            @Value("${crm.otp.outbox.poll-ms:500}") long pollMillis,
+            @Value("${crm.otp.outbox.claim-seconds:60}") long claimSeconds,
+            @Value("${crm.otp.mail.max-attempts:5}") int maxAttempts,
+            @Value("${crm.otp.mail.initial-backoff-ms:200}") long initialBackoffMillis,
+            @Value("${crm.otp.outbox.retention-minutes:60}") long retentionMinutes,
+            @Value("${crm.otp.outbox.purge-batch-size:1000}") int purgeBatchSize,
+            @Value("${crm.otp.mail.virtual-threads:${spring.threads.virtual.enabled:false}}") boolean virtualThreads) {
+        this.outboxRepo = outboxRepo;
+        this.otpMailDispatcher = otpMailDispatcher;
+        this.javaMailSender = javaMailSender;
+        this.leaseService = leaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.pollMillis = pollMillis;
+        this.claimSeconds = claimSeconds;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.retentionMinutes = retentionMinutes;
+        this.purgeBatchSize = purgeBatchSize;
+        this.threadFactory = OtpMailDispatcher.workerThreadFactory("otp-outbox-", virtualThreads);
+        // Same meters as the in-memory dispatcher, so dashboards work with either
+        this.sendTimer = Timer.builder("otp.mail.send")
+                .description("Time to hand one batch of OTP emails to the SMTP server")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sentCounter = messageCounter(meterRegistry, "sent");
+        this.retriedCounter = messageCounter(meterRegistry, "retried");
+        this.droppedCounter = messageCounter(meterRegistry, "dropped");
+    }
+
+    /**
+     * Starts the drainer threads.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = threadFactory.newThread(this::drainLoop);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Stops the drainers after their current batch. Rows still pending stay
+     * in the outbox for the next node or the next start.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        wakeUp.release(workerCount);
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Queues an OTP email as part of the caller's transaction.
+     *
+     * @param toEmail Recipient email address
+     * @param otp OTP code to send
+     * @param userRole Role the OTP was issued for (can be null)
+     */
+    public void enqueue(String toEmail, String otp, String userRole) {
+        outboxRepo.save(new OtpMailOutbox(toEmail, otp, userRole, LocalDateTime.now()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    signalWorkers();
+                }
+            });
+        } else {
+            signalWorkers();
+        }
+    }
+
+    /**
+     * Claims, sends and settles one batch of due emails.
+     *
+     * @return number of rows claimed, 0 if nothing was due
+     */
+    public int drainBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OtpMailOutbox> rows = transactionTemplate.execute(status -> {
+            List<OtpMailOutbox> due = outboxRepo.lockDue(now, batchSize);
+            if (!due.isEmpty()) {
+                outboxRepo.claim(ids(due), now.plusSeconds(claimSeconds));
+            }
+            return due;
+        });
+        if (rows == null || rows.isEmpty()) {
+            return 0;
+        }
+
+        Map<SimpleMailMessage, OtpMailOutbox> messages = new IdentityHashMap<>();
+        for (OtpMailOutbox row : rows) {
+            messages.put(otpMailDispatcher.otpMessage(row.getRecipient(), row.getOtp(), row.getUserRole()), row);
+        }
+        List<OtpMailOutbox> failed = send(messages);
+
+        List<OtpMailOutbox> sent = new ArrayList<>(rows);
+        sent.removeAll(failed);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                outboxRepo.finish(ids(sent), Status.SENT);
+            }
+            if (!failed.isEmpty()) {
+                settleFailures(failed, now);
+            }
+        });
+        sentCounter.increment(sent.size());
+        return rows.size();
+    }
+
+    /**
+     * @return rows waiting to be sent, on any node, as of the last refresh
+     */
+    public long getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Recounts the pending rows for the queue depth gauge, so a metrics
+     * scrape never runs a {@code COUNT(*)} over the table.
+     */
+    @Scheduled(fixedDelayString = "${crm.otp.outbox.depth-refresh-ms:5000}")
+    public void refreshPendingCount() {
+        pendingCount = outboxRepo.countByStatus(Status.PENDING);
+    }
+
+    /**
+     * Deletes sent and abandoned rows older than
+     * {@code crm.otp.outbox.retention-minutes}, in batches, on the lease holder.
+     */
+    @Scheduled(fixedDelayString = "${crm.otp.outbox.purge-ms:300000}",
+            initialDelayString = "${crm.otp.outbox.purge-ms:300000}")
+    public void purgeFinished() {
+        if (!leaseService.tryAcquire(LEASE_NAME, Duration.ofMinutes(10))) {
+            return;
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+            List<Long> ids;
+            do {
+                ids = outboxRepo.findFinishedIds(cutoff, Limit.of(purgeBatchSize));
+                if (!ids.isEmpty()) {
+                    List<Long> batch = ids;
+                    transactionTemplate.executeWithoutResult(status -> outboxRepo.deleteAllByIdInBatch(batch));
+                }
+            } while (ids.size() == purgeBatchSize);
+        } finally {
+            leaseService.release(LEASE_NAME);
+        }
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                if (drainBatch() == 0) {
+                    wakeUp.tryAcquire(pollMillis, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Draining the OTP mail outbox failed", e);
+                pause();
+            }
+        }
+    }
+
+    private void signalWorkers() {
+        // Waking more drainers than exist only causes empty polls
+        if (wakeUp.availablePermits() < workerCount) {
+            wakeUp.release();
+        }
+    }
+
+    /**
+     * Sends a batch over one SMTP connection.
+     *
+     * @return the rows whose message was not accepted
+     */
+    private List<OtpMailOutbox> send(Map<SimpleMailMessage, OtpMailOutbox> messages) {
+        Timer.Sample sample = Timer.start();
+        try {
+            javaMailSender.send(messages.keySet().toArray(new SimpleMailMessage[0]));
+            return List.of();
+        } catch (MailSendException e) {
+            List<OtpMailOutbox> failed = new ArrayList<>();
+            for (Object message : e.getFailedMessages().keySet()) {
+                OtpMailOutbox row = messages.get(message);
+                if (row != null) {
+                    failed.add(row);
+                }
+            }
+            log.warn("Sending {} of {} OTP emails failed", failed.isEmpty() ? messages.size() : failed.size(),
+                    messages.size(), e);
+            return failed.isEmpty() ? List.copyOf(messages.values()) : failed;
+        } catch (MailException e) {
+            log.warn("Sending {} OTP emails failed", messages.size(), e);
+            return List.copyOf(messages.values());
+        } finally {
+            sample.stop(sendTimer);
+        }
+    }
+
+    /**
+     * Gives up on rows out of attempts and reschedules the rest, one UPDATE
+     * per attempt count since each count has its own backoff.
+     */
+    private void settleFailures(List<OtpMailOutbox> failed, LocalDateTime now) {
+        List<Long> abandoned = new ArrayList<>();
+        Map<Integer, List<Long>> retries = new TreeMap<>();
+        for (OtpMailOutbox row : failed) {
+            int attempt = row.getAttempts() + 1;
+            if (attempt >= maxAttempts) {
+                abandoned.add(row.getId());
+            } else {
+                retries.computeIfAbsent(attempt, a -> new ArrayList<>()).add(row.getId());
+            }
+        }
+        if (!abandoned.isEmpty()) {
+            outboxRepo.finish(abandoned, Status.FAILED);
+            droppedCounter.increment(abandoned.size());
+            log.error("Giving up on {} OTP emails after {} attempts", abandoned.size(), maxAttempts);
+        }
+        retries.forEach((attempt, ids) -> {
+            long backoff = Math.min(initialBackoffMillis << Math.min(attempt - 1, 20), MAX_BACKOFF_MILLIS);
+            outboxRepo.retryAt(ids, now.plus(Duration.ofMillis(backoff)));
+            retriedCounter.increment(ids.size());
+        });
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(pollMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<Long> ids(List<OtpMailOutbox> rows) {
+        return rows.stream().map(OtpMailOutbox::getId).toList();
+    }
+
+    private static Counter messageCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("otp.mail.messages")
+                .description("OTP emails by delivery result")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,163 @@
+package com.crm.backend.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crm.backend.repository.OtpRepo;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Incremental purge of expired rows from {@code Otp_Store}.
+ *
+ * Runs every {@code crm.otp.purge.interval-ms} on whichever node holds the
+ * {@code otp-purge} lease. Each batch looks up the next
+ * {@code crm.otp.purge.batch-size} expired ids in {@code createdAt} order,
+ * so the index on that column serves both the filter and the sort, and
+ * deletes that primary-key range in its own short transaction, pausing
+ * {@code crm.otp.purge.pause-ms} between batches so the purge never holds
+ * long locks or starves foreground traffic. The lease is renewed before every
+ * batch after the first, and the run stops as soon as it is lost.
+ */
+@Service
+@ConditionalOnProperty(name = "crm.otp.store", havingValue = "jpa", matchIfMissing = true)
+@Slf4j
+public class OtpPurgeService {
+
+    private static final String LEASE_NAME = "otp-purge";
+
+    private final OtpRepo otpRepo;
+    private final LeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long pauseMillis;
+    private final long retentionMinutes;
+    private final Duration leaseTtl;
+    private final Counter purgedRows;
+    private final Timer batchTimer;
+
+    public OtpPurgeService(OtpRepo otpRepo, LeaseService leaseService,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${crm.otp.purge.batch-size:1000}") int batchSize,
+            @Value("${crm.otp.purge.max-batches-per-run:500}") int maxBatchesPerRun,
+            @Value("${crm.otp.purge.pause-ms:50}") long pauseMillis,
+            @Value("${crm.otp.purge.retention-minutes:30}") long retentionMinutes,
+            @Value("${crm.otp.purge.lease-seconds:300}") long leaseSeconds) {
+        this.otpRepo = otpRepo;
+        this.leaseService = leaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseMillis = pauseMillis;
+        this.retentionMinutes = retentionMinutes;
+        this.leaseTtl = Duration.ofSeconds(leaseSeconds);
+        this.purgedRows = Counter.builder("otp.purge.rows")
+                .description("Expired OTP rows deleted")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("otp.purge.batch")
+                .description("Latency of one OTP purge batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Scheduled entry point; only the lease holder does any work.
+     */
+    @Scheduled(fixedDelayString = "${crm.otp.purge.interval-ms:60000}",
+            initialDelayString = "${crm.otp.purge.initial-delay-ms:60000}")
+    public void purgeExpiredOtps() {
+        if (!leaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            return;
+        }
+        try {
+            purge(LocalDateTime.now().minusMinutes(retentionMinutes), this::renewLease);
+        } finally {
+            leaseService.release(LEASE_NAME);
+        }
+    }
+
+    /**
+     * Deletes OTPs issued before the cutoff in bounded batches.
+     *
+     * @param cutoff Issue time before which OTPs are deleted
+     * @return number of rows deleted
+     */
+    public long purgeBefore(LocalDateTime cutoff) {
+        return purge(cutoff, () -> true);
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private long purge(LocalDateTime cutoff, BooleanSupplier mayContinue) {
+        long total = 0;
+        long slowestBatchNanos = 0;
+        int batches = 0;
+
+        while (batches < maxBatchesPerRun) {
+            long start = System.nanoTime();
+            Integer deleted = transactionTemplate.execute(status -> deleteNextBatch(cutoff));
+            long elapsed = System.nanoTime() - start;
+
+            int rows = deleted == null ? 0 : deleted;
+            if (rows == 0) {
+                break;
+            }
+            batches++;
+            total += rows;
+            slowestBatchNanos = Math.max(slowestBatchNanos, elapsed);
+            purgedRows.increment(rows);
+            batchTimer.record(Duration.ofNanos(elapsed));
+
+            if (rows < batchSize || !pause() || !mayContinue.getAsBoolean()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Purged {} expired OTPs in {} batches (slowest batch {} ms)",
+                    total, batches, Duration.ofNanos(slowestBatchNanos).toMillis());
+        }
+        return total;
+    }
+
+    private boolean renewLease() {
+        if (leaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            return true;
+        }
+        log.warn("Lost the {} lease, stopping the purge until the next run", LEASE_NAME);
+        return false;
+    }
+
+    private int deleteNextBatch(LocalDateTime cutoff) {
+        List<Long> ids = otpRepo.findExpiredIds(cutoff, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Ids come back in createdAt order, which is not necessarily id order
+        return otpRepo.deleteExpiredInRange(Collections.min(ids), Collections.max(ids), cutoff);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
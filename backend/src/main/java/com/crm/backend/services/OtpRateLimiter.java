@@ -0,0 +1,114 @@
+package com.crm.backend.services;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Request budgets for the public OTP endpoints, enforced per client IP and
+ * per email address with separate limits for generation and verification.
+ *
+ * The IP budget is checked by {@link com.crm.backend.config.OtpRateLimitFilter}
+ * before the request body is read; the email budget is checked by the
+ * controller before any database or mail work. Over-limit calls throw
+ * {@link RateLimitExceededException}. The client IP is the servlet remote
+ * address, so deployments behind a proxy need
+ * {@code server.forward-headers-strategy} set for it to be meaningful.
+ */
+@Service
+public class OtpRateLimiter {
+
+    public enum Endpoint { GENERATE, VERIFY }
+
+    private final boolean enabled;
+    private final RateLimiter generateByIp;
+    private final RateLimiter generateByEmail;
+    private final RateLimiter verifyByIp;
+    private final RateLimiter verifyByEmail;
+    private final Counter generateIpRejections;
+    private final Counter generateEmailRejections;
+    private final Counter verifyIpRejections;
+    private final Counter verifyEmailRejections;
+
+    public OtpRateLimiter(MeterRegistry meterRegistry,
+            @Value("${crm.rate-limit.enabled:true}") boolean enabled,
+            @Value("${crm.rate-limit.max-keys:100000}") long maxKeys,
+            @Value("${crm.rate-limit.generate.ip.capacity:20}") int generateIpCapacity,
+            @Value("${crm.rate-limit.generate.ip.period-seconds:60}") long generateIpPeriod,
+            @Value("${crm.rate-limit.generate.email.capacity:3}") int generateEmailCapacity,
+            @Value("${crm.rate-limit.generate.email.period-seconds:900}") long generateEmailPeriod,
+            @Value("${crm.rate-limit.verify.ip.capacity:60}") int verifyIpCapacity,
+            @Value("${crm.rate-limit.verify.ip.period-seconds:60}") long verifyIpPeriod,
+            @Value("${crm.rate-limit.verify.email.capacity:5}") int verifyEmailCapacity,
+            @Value("${crm.rate-limit.verify.email.period-seconds:300}") long verifyEmailPeriod) {
+        this.enabled = enabled;
+        this.generateByIp = new RateLimiter(generateIpCapacity, Duration.ofSeconds(generateIpPeriod), maxKeys);
+        this.generateByEmail = new RateLimiter(generateEmailCapacity, Duration.ofSeconds(generateEmailPeriod), maxKeys);
+        this.verifyByIp = new RateLimiter(verifyIpCapacity, Duration.ofSeconds(verifyIpPeriod), maxKeys);
+        this.verifyByEmail = new RateLimiter(verifyEmailCapacity, Duration.ofSeconds(verifyEmailPeriod), maxKeys);
+        this.generateIpRejections = rejectionCounter(meterRegistry, "generate", "ip");
+        this.generateEmailRejections = rejectionCounter(meterRegistry, "generate", "email");
+        this.verifyIpRejections = rejectionCounter(meterRegistry, "verify", "ip");
+        this.verifyEmailRejections = rejectionCounter(meterRegistry, "verify", "email");
+    }
+
+    /**
+     * Takes one request from the client IP's budget for the endpoint.
+     *
+     * @param endpoint Endpoint being called
+     * @param clientIp Remote address of the caller
+     * @throws RateLimitExceededException if the budget is used up
+     */
+    public void checkIp(Endpoint endpoint, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        if (endpoint == Endpoint.GENERATE) {
+            check(generateByIp, clientIp, generateIpRejections);
+        } else {
+            check(verifyByIp, clientIp, verifyIpRejections);
+        }
+    }
+
+    /**
+     * Takes one request from the email address's budget for the endpoint.
+     *
+     * @param endpoint Endpoint being called
+     * @param email Email address from the request body
+     * @throws RateLimitExceededException if the budget is used up
+     */
+    public void checkEmail(Endpoint endpoint, String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        String key = email.trim().toLowerCase(Locale.ROOT);
+        if (endpoint == Endpoint.GENERATE) {
+            check(generateByEmail, key, generateEmailRejections);
+        } else {
+            check(verifyByEmail, key, verifyEmailRejections);
+        }
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private static void check(RateLimiter limiter, String key, Counter rejections) {
+        long retryAfterMillis = limiter.tryAcquire(key);
+        if (retryAfterMillis > 0) {
+            rejections.increment();
+            throw new RateLimitExceededException(retryAfterMillis);
+        }
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String endpoint, String key) {
+        return Counter.builder("otp.rate.limited")
+                .description("OTP requests rejected for exceeding their budget")
+                .tag("endpoint", endpoint)
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+}
@@ -1,25 +1,24 @@
 package com.crm.backend.services;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.EnumMap;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.crm.backend.entity.Otp;
-import com.crm.backend.entity.User;
-import com.crm.backend.repository.OtpRepo;
-import com.crm.backend.repository.UserRepo;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 
 /**
  * Service class for handling OTP (One-Time Password) operations including:
  * - Generation, validation, and management of OTPs
  * - Email delivery of OTPs
- * - Scheduled cleanup of expired OTPs
+ * - Cleanup of expired OTPs
  */
 @Service
 public class OtpService {
@@ -29,13 +28,50 @@ public class OtpService {
     private static final int OTP_LENGTH = 6;
 
     @Autowired
-    private OtpRepo otpRepo;
+    private OtpStore otpStore;
+
+    @Autowired
+    private UserLookupCache userLookupCache;
 
     @Autowired
-    private UserRepo userRepo;
+    private OtpMailDispatcher otpMailDispatcher;
+
+    // Present with the database-backed OTP store
+    @Autowired(required = false)
+    private OtpMailOutboxService otpMailOutbox;
 
     @Autowired
-    private JavaMailSender javaMailSender;
+    private OtpIssueCoalescer otpIssueCoalescer;
+
+    @Autowired
+    private AuthAuditLog authAuditLog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer persistTimer;
+    private Timer verifyTimer;
+    private Counter malformedOtpCounter;
+    private final Map<OtpVerification, Counter> verifyOutcomes = new EnumMap<>(OtpVerification.class);
+
+    /**
+     * Registers the OTP meters once so the hot paths only touch local fields.
+     */
+    @PostConstruct
+    void registerMeters() {
+        persistTimer = Timer.builder("otp.persist")
+            .description("Time to store a newly issued OTP")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        verifyTimer = Timer.builder("otp.verify")
+            .description("Time to verify and consume an OTP")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        for (OtpVerification outcome : OtpVerification.values()) {
+            verifyOutcomes.put(outcome, verifyOutcomeCounter(outcome.name().toLowerCase()));
+        }
+        malformedOtpCounter = verifyOutcomeCounter("malformed");
+    }
 
     /**
      * Sends OTP to user email if the user exists in the system.
@@ -44,13 +80,12 @@ public class OtpService {
      * @param userRole Role of the user
      * @throws RuntimeException if user not found
      */
+    @Transactional
     public void sendOtpIfUserExists(String userEmail, String userRole) {
-        Optional<User> userOpt = userRepo.findByUserEmailAndUserRole(userEmail, userRole);
-
-        if (userOpt.isPresent()) {
-            Long otpValue = generateOtp();
-            saveNewOtp(userEmail, userRole, otpValue);
-            sendOtpEmail(userEmail, otpValue);
+        checkMailCapacity();
+        if (userLookupCache.exists(userEmail, userRole)) {
+            issue(userEmail, userRole, generateOtp());
+            authAuditLog.record(AuthAuditEvent.OTP_ISSUED, userEmail, userRole);
         } else {
             throw new RuntimeException(
                 String.format("User not found for email: %s and role: %s", userEmail, userRole)
@@ -59,20 +94,23 @@ public class OtpService {
     }
 
     /**
-     * Saves a new OTP record in the database.
+     * Saves a new OTP record and queues its email as one operation: if the
+     * email cannot be queued, the OTP is not kept either.
      *
      * @param userEmail Email address associated with the OTP
      * @param userRole User role associated with the OTP
      * @param otpValue The OTP value to be saved
      * @return true if saved successfully, false if user doesn't exist
+     * @throws MailQueueFullException if the in-memory mail queue is full
      */
     @Transactional
     public boolean saveOtp(String userEmail, String userRole, Long otpValue) {
-        if (!userRepo.findByUserEmailAndUserRole(userEmail, userRole).isPresent()) {
+        checkMailCapacity();
+        if (!userLookupCache.exists(userEmail, userRole)) {
             return false;
         }
 
-        saveNewOtp(userEmail, userRole, otpValue);
+        issue(userEmail, userRole, otpValue);
         return true;
     }
 
@@ -86,57 +124,34 @@ public class OtpService {
      */
     @Transactional
     public boolean verifyOtp(String email, String otp, String userRole) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             Long otpValue = Long.parseLong(otp);
-            Otp storedOtp = findByEmailAndOtp(email, otpValue);
-            
-            if (storedOtp == null || storedOtp.isUsed()) {
-                return false;
-            }
-
-            boolean isValid = isOtpValid(storedOtp, userRole);
-
-            if (isValid) {
-                markOtpAsUsed(storedOtp);
+            OtpVerification outcome = otpStore.consume(email, userRole, otpValue,
+                LocalDateTime.now().minusMinutes(OTP_VALIDITY_MINUTES));
+            verifyOutcomes.get(outcome).increment();
+            authAuditLog.record(AuthAuditEvent.of(outcome), email, userRole);
+            if (outcome.isVerified()) {
+                // The next request for this user needs a new code, not the used one
+                otpIssueCoalescer.forget(email, userRole);
             }
-            
-            return isValid;
+            return outcome.isVerified();
         } catch (NumberFormatException e) {
+            malformedOtpCounter.increment();
+            authAuditLog.record(AuthAuditEvent.OTP_MALFORMED, email, userRole);
             return false;
+        } finally {
+            sample.stop(verifyTimer);
         }
     }
 
     /**
-     * Finds OTP record by email and OTP value.
-     *
-     * @param email Email address to search for
-     * @param otpValue OTP value to search for
-     * @return Otp entity if found, null otherwise
-     */
-    public Otp findByEmailAndOtp(String email, Long otpValue) {
-        return otpRepo.findByUserEmailAndOtp(email, otpValue);
-    }
-
-    /**
-     * Checks if OTP is valid (unused and not expired).
-     *
-     * @param email Email address associated with the OTP
-     * @param otpValue OTP value to check
-     * @return true if OTP is valid, false otherwise
-     */
-    public boolean isOtpValid(String email, Long otpValue) {
-        Otp otp = findByEmailAndOtp(email, otpValue);
-        return otp != null && isOtpValid(otp, null);
-    }
-
-    /**
-     * Scheduled job to clean up expired OTPs from database.
-     * Runs daily by default.
+     * Cleans up expired OTPs on demand. Routine cleanup is done by the
+     * store itself: {@link OtpPurgeService} for the database-backed store
+     * and the sweeper of {@link InMemoryOtpStore} for the in-memory one.
      */
-    @Transactional
-    @Scheduled(fixedRate = 24 * 60 * 60 * 1000)
     public void cleanupExpiredOtps() {
-        otpRepo.deleteByCreatedAtBefore(
+        otpStore.purgeExpired(
             LocalDateTime.now().minusMinutes(OTP_CLEANUP_MINUTES)
         );
     }
@@ -153,56 +168,66 @@ public class OtpService {
     }
 
     /**
-     * Sends OTP via email.
+     * Sheds load before any lookup or write when OTP emails go through the
+     * in-memory dispatcher and its queue is full. The outbox is a table and
+     * has no such limit.
      *
-     * @param toEmail Recipient email address
-     * @param otpValue OTP value to send
+     * @throws MailQueueFullException if the dispatcher queue is full
      */
-    private void sendOtpEmail(String toEmail, Long otpValue) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom("regenxscout@regensportz.com");
-        message.setTo(toEmail);
-        message.setSubject("Your OTP Code");
-        message.setText(String.format("Your OTP is: %d", otpValue));
-        javaMailSender.send(message);
+    private void checkMailCapacity() {
+        if (otpMailOutbox == null && !otpMailDispatcher.hasCapacity()) {
+            throw new MailQueueFullException();
+        }
     }
 
     /**
-     * Creates and saves a new OTP record.
-     *
-     * @param email Email address to associate with OTP
-     * @param role User role to associate with OTP
-     * @param otpValue OTP value to save
+     * Stores the OTP and queues its email. The queue can still fill up
+     * after {@link #checkMailCapacity()}; the OTP is then discarded again,
+     * by the rollback of the surrounding transaction for the database store
+     * and explicitly for stores that are not transactional.
      */
-    private void saveNewOtp(String email, String role, Long otpValue) {
-        Otp otp = new Otp();
-        otp.setUserEmail(email);
-        otp.setUserRole(role);
-        otp.setOtp(otpValue);
-        otp.setCreatedAt(LocalDateTime.now());
-        otp.setUsed(false);
-        otpRepo.save(otp);
+    private void issue(String email, String role, Long otpValue) {
+        saveNewOtp(email, role, otpValue);
+        try {
+            queueOtpEmail(email, String.format("%0" + OTP_LENGTH + "d", otpValue), role);
+        } catch (MailQueueFullException e) {
+            otpStore.discard(email, role, otpValue);
+            throw e;
+        }
     }
 
     /**
-     * Marks OTP as used in the database.
+     * Queues the OTP email for asynchronous delivery: in the outbox, within
+     * the current transaction, when the OTPs are in the database, otherwise
+     * in the in-memory dispatcher queue.
      *
-     * @param otp Otp entity to mark as used
+     * @param toEmail Recipient email address
+     * @param otp OTP code to send
+     * @param userRole Role the OTP was issued for (can be null)
      */
-    private void markOtpAsUsed(Otp otp) {
-        otp.setUsed(true);
-        otpRepo.save(otp);
+    private void queueOtpEmail(String toEmail, String otp, String userRole) {
+        if (otpMailOutbox != null) {
+            otpMailOutbox.enqueue(toEmail, otp, userRole);
+        } else {
+            otpMailDispatcher.dispatchOtp(toEmail, otp, userRole);
+        }
     }
 
     /**
-     * Checks if OTP is valid based on creation time and role.
+     * Creates and saves a new OTP record.
      *
-     * @param otp Otp entity to validate
-     * @param roleToCheck Role to validate against (can be null)
-     * @return true if OTP is valid, false otherwise
+     * @param email Email address to associate with OTP
+     * @param role User role to associate with OTP
+     * @param otpValue OTP value to save
      */
-    private boolean isOtpValid(Otp otp, String roleToCheck) {
-        return otp.getCreatedAt().isAfter(LocalDateTime.now().minusMinutes(OTP_VALIDITY_MINUTES))
-            && (roleToCheck == null || roleToCheck.equals(otp.getUserRole()));
+    private void saveNewOtp(String email, String role, Long otpValue) {
+        persistTimer.record(() -> otpStore.save(email, role, otpValue, LocalDateTime.now()));
+    }
+
+    private Counter verifyOutcomeCounter(String outcome) {
+        return Counter.builder("otp.verify.outcome")
+            .description("OTP verification attempts by result")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
     }
 }
\ No newline at end of file
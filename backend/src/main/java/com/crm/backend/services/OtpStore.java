@@ -0,0 +1,73 @@
+package com.crm.backend.services;
+
+import java.time.LocalDateTime;
+
+import com.crm.backend.entity.Otp;
+
+/**
+ * Storage backend for issued OTPs.
+ *
+ * Selected with {@code crm.otp.store}: {@code jpa} (default) keeps codes in
+ * the {@code Otp_Store} table and works across nodes, {@code memory} keeps
+ * them in the local heap and never touches the database.
+ */
+public interface OtpStore {
+
+    /**
+     * Stores a newly issued OTP.
+     *
+     * @param email Email address the OTP was issued to
+     * @param role User role the OTP was issued for
+     * @param otpValue The OTP value
+     * @param createdAt Issue time
+     */
+    void save(String email, String role, Long otpValue, LocalDateTime createdAt);
+
+    /**
+     * Removes an OTP that was saved but whose email could not be queued, so
+     * no code is left behind that the user never received. Does nothing if
+     * the code has been replaced or used since. A store that replaces the
+     * previous code on save puts that code back, so a failed resend does not
+     * cancel the code the user already has.
+     *
+     * @param email Email address the OTP was issued to
+     * @param role User role the OTP was issued for
+     * @param otpValue The OTP value
+     */
+    void discard(String email, String role, Long otpValue);
+
+    /**
+     * Looks up an OTP without consuming it.
+     *
+     * @param email Email address to search for
+     * @param role Role to match (can be null to match any role where supported)
+     * @param otpValue OTP value to search for
+     * @return the matching OTP, or null if none is stored
+     */
+    Otp find(String email, String role, Long otpValue);
+
+    /**
+     * Marks an OTP as used if it exists, is unused, was issued after
+     * {@code validAfter} and matches the role.
+     *
+     * @param email Email address to verify
+     * @param role Expected role (can be null to skip the role check where supported)
+     * @param otpValue OTP value to verify
+     * @param validAfter Oldest acceptable issue time
+     * @return {@link OtpVerification#VERIFIED} if this call consumed the OTP,
+     *         otherwise the reason it was rejected
+     */
+    OtpVerification consume(String email, String role, Long otpValue, LocalDateTime validAfter);
+
+    /**
+     * Removes OTPs issued before the cutoff.
+     *
+     * @param cutoff Issue time before which OTPs are discarded
+     */
+    void purgeExpired(LocalDateTime cutoff);
+
+    /**
+     * @return number of OTPs currently stored, including used ones not yet purged
+     */
+    long size();
+}
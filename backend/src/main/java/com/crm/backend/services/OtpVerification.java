@@ -0,0 +1,26 @@
+package com.crm.backend.services;
+
+/**
+ * Outcome of an attempt to consume an OTP.
+ */
+public enum OtpVerification {
+
+    /** The code matched and has now been used up. */
+    VERIFIED,
+
+    /** No code with this value was issued to this email. */
+    NOT_FOUND,
+
+    /** The code was issued too long ago. */
+    EXPIRED,
+
+    /** The code has already been used. */
+    ALREADY_USED,
+
+    /** The code was issued for a different role. */
+    ROLE_MISMATCH;
+
+    public boolean isVerified() {
+        return this == VERIFIED;
+    }
+}
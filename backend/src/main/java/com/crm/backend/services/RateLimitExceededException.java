@@ -0,0 +1,21 @@
+package com.crm.backend.services;
+
+/**
+ * Thrown when a client has used up its request budget for an OTP endpoint.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterMillis) {
+        super("Too many requests, please retry later");
+        this.retryAfterSeconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+    }
+
+    /**
+     * @return whole seconds the client should wait, for the Retry-After header
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,68 @@
+package com.crm.backend.services;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Keyed token-bucket rate limiter.
+ *
+ * Each key allows bursts of up to {@code capacity} requests and refills at
+ * {@code capacity} per {@code period}. The bucket is tracked as the GCRA
+ * "theoretical arrival time": a single {@link AtomicLong} per key, updated
+ * with compare-and-set, so an allowed request costs one map read and one CAS
+ * and never takes a lock. Rejected requests leave the state untouched.
+ *
+ * Keys live in a size-bounded cache and are dropped after one idle
+ * {@code period}, by which time their bucket would be full again anyway.
+ */
+public class RateLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    public RateLimiter(int capacity, Duration period, long maxKeys) {
+        this.intervalNanos = period.toNanos() / capacity;
+        this.burstNanos = intervalNanos * capacity;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(period)
+                .build();
+    }
+
+    /**
+     * Takes one token from the bucket for the key if one is available.
+     *
+     * @param key Bucket key, for example an email address or client IP
+     * @return 0 if the request is allowed, otherwise the number of
+     *         milliseconds until the next token becomes available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong state = buckets.get(key, k -> new AtomicLong(System.nanoTime()));
+        long now = System.nanoTime();
+        while (true) {
+            long current = state.get();
+            // A bucket that has been idle long enough is simply full
+            long arrival = current - now < 0 ? now : current;
+            long next = arrival + intervalNanos;
+            long waitNanos = next - now - burstNanos;
+            if (waitNanos > 0) {
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            }
+            if (state.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return approximate number of keys currently tracked
+     */
+    public long trackedKeys() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,134 @@
+package com.crm.backend.services;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crm.backend.dto.RefreshTokenClaims;
+import com.crm.backend.dto.TokenPair;
+import com.crm.backend.entity.RefreshTokenFamily;
+import com.crm.backend.repository.RefreshTokenFamilyRepo;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opens login sessions and exchanges refresh tokens for new token pairs.
+ *
+ * Every exchange rotates the refresh token: the session's row moves to the
+ * next generation with one conditional UPDATE, and the old token stops
+ * working. Presenting a token from an earlier generation means it was
+ * copied, so the whole session is revoked and its outstanding access tokens
+ * are rejected by {@link TokenRevocationService} from then on.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private final JwtService jwtService;
+    private final RefreshTokenFamilyRepo familyRepo;
+    private final TokenRevocationService revocationService;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthAuditLog authAuditLog;
+    private final Counter rotatedCounter;
+    private final Counter invalidCounter;
+    private final Counter revokedCounter;
+    private final Counter reuseCounter;
+
+    public RefreshTokenService(JwtService jwtService, RefreshTokenFamilyRepo familyRepo,
+            TokenRevocationService revocationService, PlatformTransactionManager transactionManager,
+            AuthAuditLog authAuditLog, MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.familyRepo = familyRepo;
+        this.revocationService = revocationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.authAuditLog = authAuditLog;
+        this.rotatedCounter = outcomeCounter(meterRegistry, "rotated");
+        this.invalidCounter = outcomeCounter(meterRegistry, "invalid");
+        this.revokedCounter = outcomeCounter(meterRegistry, "revoked");
+        this.reuseCounter = outcomeCounter(meterRegistry, "reuse_detected");
+    }
+
+    /**
+     * Opens a session after a successful OTP login.
+     *
+     * @param email User email
+     * @param role User role
+     * @return the first access and refresh token of the session
+     */
+    public TokenPair startSession(String email, Role role) {
+        String familyId = UUID.randomUUID().toString();
+        familyRepo.save(new RefreshTokenFamily(familyId, email, 0,
+                LocalDateTime.now().plus(jwtService.getRefreshTokenLifetime()), null));
+        authAuditLog.record(AuthAuditEvent.TOKEN_ISSUED, email, role);
+        return issue(email, role, familyId, 0);
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and the next refresh
+     * token of the chain.
+     *
+     * @param refreshToken Refresh token from the client
+     * @return the new token pair
+     * @throws InvalidRefreshTokenException if the token cannot be exchanged
+     */
+    public TokenPair refresh(String refreshToken) {
+        RefreshTokenClaims claims = refreshToken == null ? null : jwtService.verifyRefreshToken(refreshToken);
+        if (claims == null) {
+            invalidCounter.increment();
+            throw new InvalidRefreshTokenException();
+        }
+        if (revocationService.isRevoked(claims.familyId())) {
+            revokedCounter.increment();
+            throw new InvalidRefreshTokenException();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(jwtService.getRefreshTokenLifetime());
+        Integer rotated = transactionTemplate.execute(status ->
+                familyRepo.rotate(claims.familyId(), claims.generation(), now, expiresAt));
+        if (rotated != null && rotated == 1) {
+            rotatedCounter.increment();
+            authAuditLog.record(AuthAuditEvent.TOKEN_REFRESHED, claims.subject(), claims.role());
+            return issue(claims.subject(), claims.role(), claims.familyId(), claims.generation() + 1);
+        }
+
+        // Not the current generation: an already rotated token is being replayed
+        Optional<RefreshTokenFamily> family = familyRepo.findById(claims.familyId());
+        if (family.isPresent() && family.get().getRevokedAt() == null
+                && family.get().getGeneration() > claims.generation()) {
+            Instant familyExpiry = family.get().getExpiresAt().atZone(ZoneId.systemDefault()).toInstant();
+            revocationService.revoke(claims.familyId(), familyExpiry);
+            reuseCounter.increment();
+            authAuditLog.record(AuthAuditEvent.TOKEN_REUSE_DETECTED, claims.subject(), claims.role());
+            log.warn("Refresh token reuse for {} (generation {} of {}), session revoked",
+                    claims.subject(), claims.generation(), family.get().getGeneration());
+        } else {
+            invalidCounter.increment();
+        }
+        throw new InvalidRefreshTokenException();
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private TokenPair issue(String email, Role role, String familyId, int generation) {
+        return new TokenPair(
+                jwtService.generateAccessToken(email, role, familyId),
+                jwtService.generateRefreshToken(email, role, familyId, generation),
+                role.getAuthority());
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.refresh.outcome")
+                .description("Refresh token exchanges by result")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,113 @@
+package com.crm.backend.services;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Roles a {@code User_Data} row may carry, doubling as the Spring Security
+ * authority of a signed-in user.
+ *
+ * Every role has a stable numeric {@link #code()} that access tokens carry
+ * instead of the role name, and a {@link #bit()} used by the path
+ * authorization table, so checking access is one mask test. Codes are part
+ * of issued tokens: never reuse or renumber one, only append.
+ */
+public enum Role implements GrantedAuthority {
+
+    ADMINISTRATOR(0, "administrator"),
+    SALES_REPRESENTATIVE(1, "Sales Representative"),
+    SALES_MANAGER(2, "Sales Manager"),
+    MARKETING_PROFESSIONAL(3, "Marketing Professional"),
+    CUSTOMER_SUPPORT(4, "Customer Support"),
+    EXECUTIVE(5, "Executive"),
+    FINANCE_OFFICER(6, "finance_officer"),
+    SUPPORT_USER(7, "support_user");
+
+    private static final Role[] BY_CODE;
+    private static final Map<String, Role> BY_NAME;
+
+    static {
+        Role[] roles = values();
+        int maxCode = 0;
+        for (Role role : roles) {
+            maxCode = Math.max(maxCode, role.code);
+        }
+        BY_CODE = new Role[maxCode + 1];
+        Map<String, Role> byName = new HashMap<>();
+        for (Role role : roles) {
+            BY_CODE[role.code] = role;
+            byName.put(role.authority, role);
+        }
+        BY_NAME = Map.copyOf(byName);
+    }
+
+    private final int code;
+    private final String authority;
+    private final List<GrantedAuthority> authorities;
+
+    Role(int code, String authority) {
+        this.code = code;
+        this.authority = authority;
+        this.authorities = List.of(this);
+    }
+
+    /**
+     * @param name Role name as stored in {@code User_Data} and sent by clients
+     * @return the role, or null if the name is not a role
+     */
+    public static Role fromName(String name) {
+        return name == null ? null : BY_NAME.get(name);
+    }
+
+    /**
+     * @param code Role code from an access token
+     * @return the role, or null if no role has the code
+     */
+    public static Role fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    /**
+     * @return true if the name is a role
+     */
+    public static boolean isValid(String name) {
+        return fromName(name) != null;
+    }
+
+    /**
+     * Combined bit mask of the given roles.
+     */
+    public static int mask(Role... roles) {
+        int mask = 0;
+        for (Role role : roles) {
+            mask |= role.bit();
+        }
+        return mask;
+    }
+
+    /**
+     * @return the role name as stored in {@code User_Data}
+     */
+    @Override
+    public String getAuthority() {
+        return authority;
+    }
+
+    public int code() {
+        return code;
+    }
+
+    public int bit() {
+        return 1 << code;
+    }
+
+    /**
+     * @return a shared single-element authority list for this role
+     */
+    public List<GrantedAuthority> authorities() {
+        return authorities;
+    }
+}
@@ -0,0 +1,188 @@
+package com.crm.backend.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crm.backend.entity.RefreshTokenFamily;
+import com.crm.backend.repository.RefreshTokenFamilyRepo;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory set of revoked login sessions (refresh token families), checked
+ * on every authenticated request and every token refresh.
+ *
+ * A Bloom filter sized for {@code crm.auth.revocation.expected-entries}
+ * answers "not revoked" for almost every lookup without touching the exact
+ * set; only Bloom positives consult the exact map of revoked family ids,
+ * so a million revocations cost about a megabyte of filter plus the map.
+ * Revocations are written to {@code Refresh_Token_Family} and every node
+ * pulls new ones every {@code crm.auth.revocation.sync-ms}. Expired entries
+ * are dropped and the filter rebuilt every
+ * {@code crm.auth.revocation.purge-ms}; the lease holder also deletes
+ * expired families from the database in batches.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private static final String LEASE_NAME = "refresh-family-purge";
+    // Re-read a window before the last sync so rows committed late are not missed
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private final RefreshTokenFamilyRepo familyRepo;
+    private final LeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final int purgeBatchSize;
+    private final Map<UUID, Instant> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter;
+    private volatile LocalDateTime lastSync = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public TokenRevocationService(RefreshTokenFamilyRepo familyRepo, LeaseService leaseService,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${crm.auth.revocation.expected-entries:1000000}") long expectedEntries,
+            @Value("${crm.auth.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${crm.auth.revocation.purge-batch-size:1000}") int purgeBatchSize) {
+        this.familyRepo = familyRepo;
+        this.leaseService = leaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.purgeBatchSize = purgeBatchSize;
+        this.bloomFilter = new BloomFilter(expectedEntries, falsePositiveRate);
+        Gauge.builder("auth.revoked.sessions", revoked, Map::size)
+                .description("Revoked login sessions held in memory")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void loadRevocations() {
+        sync();
+        log.info("Loaded {} revoked sessions, Bloom filter {} KiB", revoked.size(), bloomFilter.sizeInBytes() / 1024);
+    }
+
+    /**
+     * Checks whether a login session has been revoked.
+     *
+     * @param familyId Session id from a token
+     * @return true if the session is revoked
+     */
+    public boolean isRevoked(UUID familyId) {
+        if (familyId == null
+                || !bloomFilter.mightContain(familyId.getMostSignificantBits(), familyId.getLeastSignificantBits())) {
+            return false;
+        }
+        Instant expiresAt = revoked.get(familyId);
+        return expiresAt != null && expiresAt.isAfter(Instant.now());
+    }
+
+    /**
+     * @see #isRevoked(UUID)
+     */
+    public boolean isRevoked(String familyId) {
+        return isRevoked(parse(familyId));
+    }
+
+    /**
+     * Revokes a login session on this node immediately and on the others at
+     * their next sync.
+     *
+     * @param familyId Session id
+     * @param expiresAt Time after which no token of the session is valid anyway
+     */
+    public void revoke(String familyId, Instant expiresAt) {
+        transactionTemplate.executeWithoutResult(status -> familyRepo.revoke(familyId, LocalDateTime.now()));
+        add(parse(familyId), expiresAt);
+    }
+
+    /**
+     * Pulls revocations made by other nodes since the last sync.
+     */
+    @Scheduled(fixedDelayString = "${crm.auth.revocation.sync-ms:5000}",
+            initialDelayString = "${crm.auth.revocation.sync-ms:5000}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RefreshTokenFamily> families = familyRepo.findRevokedSince(lastSync.minus(SYNC_OVERLAP), now);
+        for (RefreshTokenFamily family : families) {
+            add(parse(family.getFamilyId()), family.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
+        }
+        lastSync = now;
+    }
+
+    /**
+     * Drops expired revocations, rebuilds the Bloom filter from the rest and,
+     * on the lease holder, deletes expired families from the database.
+     */
+    @Scheduled(fixedDelayString = "${crm.auth.revocation.purge-ms:3600000}",
+            initialDelayString = "${crm.auth.revocation.purge-ms:3600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+
+        BloomFilter rebuilt = new BloomFilter(expectedEntries, falsePositiveRate);
+        revoked.keySet().forEach(id -> rebuilt.put(id.getMostSignificantBits(), id.getLeastSignificantBits()));
+        bloomFilter = rebuilt;
+        // Entries added while the new filter was filled went to the old one
+        revoked.keySet().forEach(id -> rebuilt.put(id.getMostSignificantBits(), id.getLeastSignificantBits()));
+
+        if (leaseService.tryAcquire(LEASE_NAME, Duration.ofMinutes(10))) {
+            try {
+                deleteExpiredFamilies();
+            } finally {
+                leaseService.release(LEASE_NAME);
+            }
+        }
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private void add(UUID familyId, Instant expiresAt) {
+        if (familyId == null) {
+            return;
+        }
+        revoked.put(familyId, expiresAt);
+        bloomFilter.put(familyId.getMostSignificantBits(), familyId.getLeastSignificantBits());
+    }
+
+    private void deleteExpiredFamilies() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        List<String> ids;
+        do {
+            ids = familyRepo.findExpiredIds(cutoff, Limit.of(purgeBatchSize));
+            if (!ids.isEmpty()) {
+                List<String> batch = ids;
+                transactionTemplate.executeWithoutResult(status -> familyRepo.deleteAllByIdInBatch(batch));
+            }
+        } while (ids.size() == purgeBatchSize);
+    }
+
+    private static UUID parse(String familyId) {
+        if (familyId == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(familyId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
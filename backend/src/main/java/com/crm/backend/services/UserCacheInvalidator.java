@@ -0,0 +1,58 @@
+package com.crm.backend.services;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.crm.backend.entity.User;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that keeps {@link UserLookupCache} in step with the
+ * {@code User_Data} table. Invalidation is deferred until the surrounding
+ * transaction commits so a concurrent reader cannot re-cache the old state;
+ * a rolled-back change leaves the cache alone. Other nodes are not told,
+ * see {@link UserLookupCache} for how stale they can be.
+ */
+@Component
+public class UserCacheInvalidator {
+
+    // Resolved lazily: entity listeners are created while the EntityManagerFactory is still starting
+    private final ObjectProvider<UserLookupCache> userLookupCache;
+
+    public UserCacheInvalidator(ObjectProvider<UserLookupCache> userLookupCache) {
+        this.userLookupCache = userLookupCache;
+    }
+
+    @PostPersist
+    @PostRemove
+    public void onInsertOrDelete(User user) {
+        afterCommit(() -> userLookupCache.getObject().invalidate(user.getUserEmail(), user.getUserRole()));
+    }
+
+    /**
+     * The previous email and role are not known here, so an update clears
+     * the whole cache. Updates are rare compared with lookups.
+     */
+    @PostUpdate
+    public void onUpdate(User user) {
+        afterCommit(() -> userLookupCache.getObject().invalidateAll());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
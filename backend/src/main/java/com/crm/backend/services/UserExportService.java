@@ -0,0 +1,199 @@
+package com.crm.backend.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes every {@code User_Data} row to an output stream as CSV or NDJSON.
+ *
+ * Rows are read in chunks of {@code crm.user-export.chunk-size}, each chunk
+ * one forward-only JDBC query that continues after the last id of the
+ * previous one, with the fetch size set to the chunk size. Columns go
+ * straight from the result set to the output, so no entities are created
+ * and heap use does not depend on the table size. The connection goes back
+ * to the pool after every chunk, so a slow client holds a connection only
+ * while one chunk is read, never while it downloads. Rows added during an
+ * export are included if their id is past the current position; the dump
+ * is not a point-in-time snapshot.
+ *
+ * Both formats use the column names of the bulk import, so an export can be
+ * imported again.
+ */
+@Service
+@Slf4j
+public class UserExportService {
+
+    private static final String CHUNK_SQL = "SELECT user_id, user_name, user_email, user_role, department, "
+            + "created_at, updated_at FROM user_data WHERE user_id > ? ORDER BY user_id LIMIT ?";
+    private static final String CSV_HEADER = "user_id,user_name,user_email,user_role,department,created_at,updated_at\n";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final Timer exportTimer;
+    private final Counter rowCounter;
+
+    public UserExportService(DataSource dataSource, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${crm.user-export.chunk-size:5000}") int chunkSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(chunkSize);
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.exportTimer = Timer.builder("user.export")
+                .description("Time to stream a full user export")
+                .register(meterRegistry);
+        this.rowCounter = Counter.builder("user.export.rows")
+                .description("Rows written by user exports")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Writes all users as CSV with a header line.
+     *
+     * @param out Destination; flushed but not closed
+     * @return number of rows written
+     * @throws IOException if writing fails, for example because the client went away
+     */
+    public long exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        long rows = export(rs -> {
+            writer.write(Long.toString(rs.getLong(1)));
+            for (int column = 2; column <= 5; column++) {
+                writer.write(',');
+                writeCsvField(writer, rs.getString(column));
+            }
+            writer.write(',');
+            writer.write(isoInstant(rs.getTimestamp(6)));
+            writer.write(',');
+            writer.write(isoInstant(rs.getTimestamp(7)));
+            writer.write('\n');
+        }, writer::flush);
+        writer.flush();
+        return rows;
+    }
+
+    /**
+     * Writes all users as newline-delimited JSON, one object per row.
+     *
+     * @param out Destination; flushed but not closed
+     * @return number of rows written
+     * @throws IOException if writing fails, for example because the client went away
+     */
+    public long exportNdjson(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long rows = export(rs -> {
+            generator.writeStartObject();
+            generator.writeNumberField("user_id", rs.getLong(1));
+            generator.writeStringField("user_name", rs.getString(2));
+            generator.writeStringField("user_email", rs.getString(3));
+            generator.writeStringField("user_role", rs.getString(4));
+            generator.writeStringField("department", rs.getString(5));
+            generator.writeStringField("created_at", nullableInstant(rs.getTimestamp(6)));
+            generator.writeStringField("updated_at", nullableInstant(rs.getTimestamp(7)));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }, generator::flush);
+        generator.close();
+        return rows;
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private long export(RowWriter rowWriter, Flush flush) throws IOException {
+        Timer.Sample sample = Timer.start();
+        long[] position = { 0, 0 };
+        try {
+            int read;
+            do {
+                read = readChunk(position, rowWriter);
+                // Hand each chunk to the client before the next query
+                flush.flush();
+            } while (read == chunkSize);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            sample.stop(exportTimer);
+        }
+        log.info("User export finished: {} rows", position[1]);
+        return position[1];
+    }
+
+    /**
+     * Reads one chunk after {@code position[0]} (last id) and adds the rows
+     * read to {@code position[1]}.
+     */
+    private int readChunk(long[] position, RowWriter rowWriter) {
+        int[] read = { 0 };
+        jdbcTemplate.query(CHUNK_SQL, rs -> {
+            try {
+                rowWriter.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            position[0] = rs.getLong(1);
+            read[0]++;
+        }, position[0], chunkSize);
+        position[1] += read[0];
+        rowCounter.increment(read[0]);
+        return read[0];
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                || value.indexOf('\r') >= 0 || !value.isEmpty() && (value.charAt(0) == ' ' || value.endsWith(" "));
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String isoInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant().toString() : "";
+    }
+
+    private static String nullableInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant().toString() : null;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    @FunctionalInterface
+    private interface Flush {
+        void flush() throws IOException;
+    }
+}
@@ -0,0 +1,401 @@
+package com.crm.backend.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crm.backend.dto.UserImportResult;
+import com.crm.backend.dto.UserImportResult.RowError;
+import com.crm.backend.dto.UserImportRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates {@code User_Data} rows in bulk from CSV or NDJSON uploads.
+ *
+ * The upload is read line by line and never held in memory as a whole.
+ * Valid rows are collected into chunks of {@code crm.user-import.batch-size}
+ * and each chunk is written in its own transaction with multi-row
+ * {@code INSERT IGNORE} statements. The JPA {@code IDENTITY} id makes
+ * Hibernate insert rows one statement at a time, so the chunk goes through
+ * JDBC and leaves id assignment to the column's auto-increment.
+ *
+ * Emails are lowercased before rows are keyed or written. The unique
+ * (email, role) index decides what is a duplicate: a row that collides with
+ * an existing one, including one written by a concurrent import between our
+ * statements, is skipped by the database and counted as a duplicate from
+ * the affected row count. A row repeated within one chunk is caught before
+ * it is sent.
+ *
+ * Rows that fail parsing or validation are skipped and reported with their
+ * line number, up to {@code crm.user-import.max-reported-errors}. Progress
+ * is logged every {@code crm.user-import.progress-interval} rows.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    private static final String INSERT = "INSERT IGNORE INTO user_data "
+            + "(user_name, user_email, user_role, department, created_at, updated_at) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?)";
+    // Keeps each statement well under MySQL's 65,535 placeholder limit
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final int MAX_COLUMN_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserLookupCache userLookupCache;
+    private final ObjectReader rowReader;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final long progressInterval;
+    private final Timer importTimer;
+    private final Counter importedCounter;
+    private final Counter duplicateCounter;
+    private final Counter rejectedCounter;
+
+    public UserImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            UserLookupCache userLookupCache, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${crm.user-import.batch-size:1000}") int batchSize,
+            @Value("${crm.user-import.max-reported-errors:100}") int maxReportedErrors,
+            @Value("${crm.user-import.progress-interval:10000}") long progressInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userLookupCache = userLookupCache;
+        this.rowReader = objectMapper.readerFor(UserImportRow.class);
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.progressInterval = progressInterval;
+        this.importTimer = Timer.builder("user.import")
+                .description("Time to import one bulk user upload")
+                .register(meterRegistry);
+        this.importedCounter = rowCounter(meterRegistry, "imported");
+        this.duplicateCounter = rowCounter(meterRegistry, "duplicate");
+        this.rejectedCounter = rowCounter(meterRegistry, "rejected");
+    }
+
+    /**
+     * Imports users from CSV. The first line is a header naming the columns
+     * {@code user_name}, {@code user_email}, {@code user_role} and
+     * {@code department} in any order; email and role are required.
+     * Quoted fields may contain commas but not line breaks.
+     *
+     * @param in CSV upload, UTF-8
+     * @return counts and per-row errors
+     * @throws InvalidImportException if the header is missing or incomplete
+     */
+    public UserImportResult importCsv(InputStream in) {
+        return importRows(in, new CsvParser());
+    }
+
+    /**
+     * Imports users from newline-delimited JSON, one object per line with
+     * the same field names as the CSV header.
+     *
+     * @param in NDJSON upload, UTF-8
+     * @return counts and per-row errors
+     */
+    public UserImportResult importNdjson(InputStream in) {
+        return importRows(in, this::parseJson);
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private UserImportResult importRows(InputStream in, LineParser parser) {
+        Timer.Sample sample = Timer.start();
+        ImportRun run = new ImportRun();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                run.accept(lineNumber, line, parser);
+            }
+            run.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read import upload", e);
+        } finally {
+            sample.stop(importTimer);
+        }
+        log.info("User import finished: {} rows, {} imported, {} duplicates, {} rejected",
+                run.total, run.imported, run.duplicates, run.rejected);
+        return run.result();
+    }
+
+    private UserImportRow parseJson(String line) {
+        try {
+            return rowReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String validate(UserImportRow row) {
+        if (row.getUserEmail() == null || row.getUserEmail().isEmpty()) {
+            return "Email is required";
+        }
+        if (row.getUserEmail().length() > MAX_COLUMN_LENGTH || !EMAIL.matcher(row.getUserEmail()).matches()) {
+            return "Invalid email: " + row.getUserEmail();
+        }
+        if (row.getUserRole() == null || row.getUserRole().isEmpty()) {
+            return "Role is required";
+        }
+        if (!Role.isValid(row.getUserRole())) {
+            return "Invalid role: " + row.getUserRole();
+        }
+        if (row.getUserName() != null && row.getUserName().length() > MAX_COLUMN_LENGTH
+                || row.getDepartment() != null && row.getDepartment().length() > MAX_COLUMN_LENGTH) {
+            return "Name and department must be at most " + MAX_COLUMN_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static UserImportRow normalize(UserImportRow row) {
+        row.setUserName(trimToNull(row.getUserName()));
+        String email = trimToNull(row.getUserEmail());
+        row.setUserEmail(email != null ? email.toLowerCase(Locale.ROOT) : null);
+        row.setUserRole(trimToNull(row.getUserRole()));
+        row.setDepartment(trimToNull(row.getDepartment()));
+        return row;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT.length() + rows * (ROW.length() + 2)).append(INSERT);
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(ROW);
+        }
+        return sql.toString();
+    }
+
+    private static String key(String email, String role) {
+        return email + '\u0000' + role;
+    }
+
+    private static Counter rowCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("user.import.rows")
+                .description("Rows processed by bulk user imports")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Turns one line of the upload into a row. Returns null for lines that
+     * carry no row, throws {@link IllegalArgumentException} for a bad row.
+     */
+    @FunctionalInterface
+    private interface LineParser {
+        UserImportRow parse(String line);
+    }
+
+    /**
+     * State of one import: the pending chunk and the running totals.
+     */
+    private final class ImportRun {
+
+        private final Map<String, UserImportRow> chunk = new LinkedHashMap<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private long total;
+        private long imported;
+        private long duplicates;
+        private long rejected;
+        private long nextProgressLog = progressInterval;
+
+        void accept(long lineNumber, String line, LineParser parser) {
+            UserImportRow row;
+            try {
+                row = parser.parse(line);
+            } catch (IllegalArgumentException e) {
+                total++;
+                reject(lineNumber, e.getMessage());
+                return;
+            }
+            if (row == null) {
+                return;
+            }
+            total++;
+            String error = validate(normalize(row));
+            if (error != null) {
+                reject(lineNumber, error);
+                return;
+            }
+            if (chunk.putIfAbsent(key(row.getUserEmail(), row.getUserRole()), row) != null) {
+                duplicates++;
+                duplicateCounter.increment();
+            } else if (chunk.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<UserImportRow> rows = new ArrayList<>(chunk.values());
+            chunk.clear();
+
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            Integer inserted = transactionTemplate.execute(status -> {
+                int count = 0;
+                for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+                    count += insert(rows.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, rows.size())), now);
+                }
+                return count;
+            });
+            // Drop cached "unknown user" answers; skipped rows exist already, so evicting them is harmless
+            rows.forEach(row -> userLookupCache.invalidate(row.getUserEmail(), row.getUserRole()));
+            imported += inserted;
+            importedCounter.increment(inserted);
+            duplicates += rows.size() - inserted;
+            duplicateCounter.increment(rows.size() - inserted);
+
+            if (total >= nextProgressLog) {
+                log.info("User import progress: {} rows, {} imported, {} duplicates, {} rejected",
+                        total, imported, duplicates, rejected);
+                nextProgressLog = (total / progressInterval + 1) * progressInterval;
+            }
+        }
+
+        UserImportResult result() {
+            return new UserImportResult(total, imported, duplicates, rejected, List.copyOf(errors),
+                    rejected > errors.size());
+        }
+
+        private void reject(long lineNumber, String message) {
+            rejected++;
+            rejectedCounter.increment();
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(lineNumber, message));
+            }
+        }
+
+        /**
+         * @return the number of rows written; the others collided with existing rows
+         */
+        private int insert(List<UserImportRow> rows, Timestamp now) {
+            return jdbcTemplate.update(insertSql(rows.size()), ps -> {
+                int p = 1;
+                for (UserImportRow row : rows) {
+                    ps.setString(p++, row.getUserName());
+                    ps.setString(p++, row.getUserEmail());
+                    ps.setString(p++, row.getUserRole());
+                    ps.setString(p++, row.getDepartment());
+                    ps.setTimestamp(p++, now);
+                    ps.setTimestamp(p++, now);
+                }
+            });
+        }
+    }
+
+    /**
+     * Maps CSV columns by the header line, which must come first.
+     */
+    private static final class CsvParser implements LineParser {
+
+        private int nameColumn = -1;
+        private int emailColumn = -1;
+        private int roleColumn = -1;
+        private int departmentColumn = -1;
+        private boolean headerRead;
+
+        @Override
+        public UserImportRow parse(String line) {
+            List<String> fields = split(line);
+            if (!headerRead) {
+                readHeader(fields);
+                return null;
+            }
+            return new UserImportRow(field(fields, nameColumn), field(fields, emailColumn),
+                    field(fields, roleColumn), field(fields, departmentColumn));
+        }
+
+        private void readHeader(List<String> fields) {
+            for (int i = 0; i < fields.size(); i++) {
+                switch (fields.get(i).trim().toLowerCase(Locale.ROOT)) {
+                    case "user_name" -> nameColumn = i;
+                    case "user_email" -> emailColumn = i;
+                    case "user_role" -> roleColumn = i;
+                    case "department" -> departmentColumn = i;
+                    default -> {
+                        // Extra columns are ignored
+                    }
+                }
+            }
+            if (emailColumn < 0 || roleColumn < 0) {
+                throw new InvalidImportException("CSV header must name the user_email and user_role columns");
+            }
+            headerRead = true;
+        }
+
+        private static String field(List<String> fields, int column) {
+            return column >= 0 && column < fields.size() ? fields.get(column) : null;
+        }
+
+        private static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quoted field");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
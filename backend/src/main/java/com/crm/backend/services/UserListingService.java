@@ -0,0 +1,104 @@
+package com.crm.backend.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.crm.backend.dto.UserPage;
+import com.crm.backend.dto.UserSummary;
+import com.crm.backend.repository.UserRepo;
+
+/**
+ * Pages through {@code User_Data} with keyset (seek) pagination.
+ *
+ * Each page continues after the last {@code userId} of the previous one
+ * ({@code WHERE userId > ? ORDER BY userId LIMIT n}), so the database seeks
+ * into the index instead of skipping rows, and a deep page costs the same as
+ * the first. The position travels in an opaque cursor that also records the
+ * filters it was issued for; a cursor presented with other filters is
+ * rejected rather than silently yielding a wrong page.
+ */
+@Service
+public class UserListingService {
+
+    private static final String CURSOR_VERSION = "v1";
+
+    private final UserRepo userRepo;
+    private final int maxPageSize;
+
+    public UserListingService(UserRepo userRepo, @Value("${crm.users.max-page-size:500}") int maxPageSize) {
+        this.userRepo = userRepo;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Reads one page of users.
+     *
+     * @param role Role to filter on, or null
+     * @param department Department to filter on, or null
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param limit Page size, capped at {@code crm.users.max-page-size}
+     * @return the page and the cursor of the next one
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for other filters
+     */
+    public UserPage list(String role, String department, String cursor, int limit) {
+        role = StringUtils.hasText(role) ? role : null;
+        department = StringUtils.hasText(department) ? department : null;
+        long afterId = cursor == null || cursor.isEmpty() ? 0 : decodeCursor(cursor, role, department);
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+
+        // One extra row tells whether another page follows
+        List<UserSummary> rows = fetch(role, department, afterId, Limit.of(pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new UserPage(rows, null);
+        }
+        List<UserSummary> page = rows.subList(0, pageSize);
+        return new UserPage(List.copyOf(page), encodeCursor(page.get(pageSize - 1).userId(), role, department));
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private List<UserSummary> fetch(String role, String department, long afterId, Limit limit) {
+        if (role != null && department != null) {
+            return userRepo.findSummariesByRoleAndDepartmentAfter(role, department, afterId, limit);
+        }
+        if (role != null) {
+            return userRepo.findSummariesByRoleAfter(role, afterId, limit);
+        }
+        if (department != null) {
+            return userRepo.findSummariesByDepartmentAfter(department, afterId, limit);
+        }
+        return userRepo.findSummariesAfter(afterId, limit);
+    }
+
+    static String encodeCursor(long afterId, String role, String department) {
+        String payload = CURSOR_VERSION + ':' + afterId + ':' + Integer.toHexString(Objects.hash(role, department));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor, String role, String department) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 3 || !CURSOR_VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!parts[2].equals(Integer.toHexString(Objects.hash(role, department)))) {
+            throw new IllegalArgumentException("Cursor was issued for different filters");
+        }
+        try {
+            return Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.crm.backend.services;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.crm.backend.repository.UserRepo;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Read-through cache for "does a user with this email and role exist"
+ * lookups against {@code User_Data}.
+ *
+ * Hits are kept for {@code crm.user-cache.positive-ttl-seconds} and misses
+ * for the much shorter {@code crm.user-cache.negative-ttl-seconds}, so
+ * repeated requests for unknown addresses stop reaching the database.
+ * Concurrent lookups of the same key share one query. Entries are evicted
+ * explicitly by {@link UserCacheInvalidator} whenever a user row changes,
+ * and hit/miss statistics are published as the {@code user.lookup} cache.
+ *
+ * Eviction only reaches this node's cache. On other nodes the TTLs bound
+ * how stale an answer can be: a deleted user or changed role is seen
+ * within the positive TTL, and a new user within the negative TTL. That is
+ * why the positive TTL defaults to one minute rather than longer.
+ *
+ * Loads are read-only and go to a replica when {@code crm.datasource.replicas}
+ * is set. A replica that lags behind an import or an eviction would answer
+ * "unknown user" and have that cached for the negative TTL, so with
+ * replicas a negative answer is confirmed on the primary before it is
+ * cached. The check runs in its own read-write transaction that is rolled
+ * back rather than committed: it reaches the primary without pinning the
+ * thread's later reads there the way a committed write does.
+ *
+ * With virtual threads enabled the query runs on its own virtual thread and
+ * callers wait on the shared future. Otherwise it runs on the calling
+ * thread inside Caffeine's per-key lock, which is a {@code synchronized}
+ * block and would pin a virtual thread to its carrier for the whole query.
+ */
+@Service
+public class UserLookupCache {
+
+    private final UserRepo userRepo;
+    // Null without replicas, where the first answer already came from the primary
+    private final TransactionTemplate primaryCheck;
+    private final AsyncLoadingCache<UserKey, Boolean> cache;
+
+    public UserLookupCache(UserRepo userRepo, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${crm.user-cache.max-size:100000}") long maxSize,
+            @Value("${crm.user-cache.positive-ttl-seconds:60}") long positiveTtlSeconds,
+            @Value("${crm.user-cache.negative-ttl-seconds:30}") long negativeTtlSeconds,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${crm.datasource.replicas:}") String replicas) {
+        this.userRepo = userRepo;
+        if (StringUtils.hasText(replicas)) {
+            primaryCheck = new TransactionTemplate(transactionManager);
+            primaryCheck.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        } else {
+            primaryCheck = null;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExistenceExpiry(
+                        Duration.ofSeconds(positiveTtlSeconds).toNanos(),
+                        Duration.ofSeconds(negativeTtlSeconds).toNanos()))
+                .executor(loaderExecutor(virtualThreads))
+                .recordStats()
+                .buildAsync(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user.lookup");
+    }
+
+    /**
+     * Checks whether a user with the given email and role exists.
+     *
+     * @param userEmail Email address of the user
+     * @param userRole Role of the user
+     * @return true if the user exists
+     */
+    public boolean exists(String userEmail, String userRole) {
+        try {
+            return cache.get(new UserKey(userEmail, userRole)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the cached answer for one email and role.
+     *
+     * @param userEmail Email address of the user
+     * @param userRole Role of the user
+     */
+    public void invalidate(String userEmail, String userRole) {
+        cache.synchronous().invalidate(new UserKey(userEmail, userRole));
+    }
+
+    /**
+     * Drops every cached answer.
+     */
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    // ============ PRIVATE HELPER METHODS ============ //
+
+    private boolean load(UserKey key) {
+        if (userRepo.findByUserEmailAndUserRole(key.email(), key.role()).isPresent()) {
+            return true;
+        }
+        if (primaryCheck == null || TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // The lookup joined a read-write transaction, which reads the primary
+            return false;
+        }
+        return Boolean.TRUE.equals(primaryCheck.execute(status -> {
+            status.setRollbackOnly();
+            return userRepo.findByUserEmailAndUserRole(key.email(), key.role()).isPresent();
+        }));
+    }
+
+    private static Executor loaderExecutor(boolean virtualThreads) {
+        if (virtualThreads && JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+            return new VirtualThreadTaskExecutor("user-lookup-");
+        }
+        // Load on the caller, exactly as a synchronous cache would
+        return Runnable::run;
+    }
+
+    private record UserKey(String email, String role) {
+    }
+
+    /**
+     * Gives existing users a long lifetime and unknown users a short one.
+     */
+    private static final class ExistenceExpiry implements Expiry<UserKey, Boolean> {
+
+        private final long positiveTtlNanos;
+        private final long negativeTtlNanos;
+
+        ExistenceExpiry(long positiveTtlNanos, long negativeTtlNanos) {
+            this.positiveTtlNanos = positiveTtlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(UserKey key, Boolean exists, long currentTime) {
+            return exists ? positiveTtlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(UserKey key, Boolean exists, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, exists, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UserKey key, Boolean exists, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.crm.backend.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+	"management.health.mail.enabled=false",
+	"crm.metrics.scrape-addresses=10.0.0.0/8"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsAccessTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void onlyTheScraperNetworkReadsMetrics() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus").with(request -> {
+			request.setRemoteAddr("10.1.2.3");
+			return request;
+		}))
+				.andExpect(status().isOk())
+				.andExpect(content().string(Matchers.containsString("otp_generate_outcome_total{")));
+
+		mockMvc.perform(get("/actuator/prometheus").with(request -> {
+			request.setRemoteAddr("203.0.113.7");
+			return request;
+		}))
+				.andExpect(status().isForbidden());
+
+		mockMvc.perform(get("/actuator/health").with(request -> {
+			request.setRemoteAddr("203.0.113.7");
+			return request;
+		}))
+				.andExpect(status().isOk());
+	}
+}
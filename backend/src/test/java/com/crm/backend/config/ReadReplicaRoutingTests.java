@@ -0,0 +1,111 @@
+package com.crm.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.crm.backend.entity.User;
+import com.crm.backend.repository.UserRepo;
+import com.crm.backend.services.UserLookupCache;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+	"spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+	"crm.datasource.replicas=" + ReadReplicaRoutingTests.REPLICA_URL,
+	"crm.datasource.replica.lag-query=SELECT seconds FROM replica_lag",
+	"crm.datasource.replica.health-check-ms=3600000"
+})
+class ReadReplicaRoutingTests {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+	private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+	private final ExecutorService freshThreads = Executors.newCachedThreadPool();
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private ReplicaDataSource replicaDataSource;
+
+	@Autowired
+	private UserLookupCache userLookupCache;
+
+	@BeforeEach
+	void seed() {
+		userRepo.deleteAll();
+		replica.execute("CREATE TABLE IF NOT EXISTS replica_lag(seconds INT)");
+		replica.execute("CREATE TABLE IF NOT EXISTS user_data(user_id BIGINT PRIMARY KEY, user_name VARCHAR(255),"
+				+ " user_email VARCHAR(255), user_role VARCHAR(255), department VARCHAR(255),"
+				+ " created_at TIMESTAMP, updated_at TIMESTAMP)");
+		replica.update("DELETE FROM user_data");
+		replica.update("DELETE FROM replica_lag");
+		replica.update("INSERT INTO replica_lag VALUES (0)");
+		replica.update("INSERT INTO user_data(user_id, user_email, user_role) VALUES (1, 'replica@crm.test', 'Executive')");
+		replicaDataSource.checkReplicas();
+	}
+
+	@AfterEach
+	void shutdown() {
+		freshThreads.shutdownNow();
+	}
+
+	@Test
+	void readOnlyLookupsGoToTheReplica() throws Exception {
+		assertTrue(onFreshThread(() -> exists("replica@crm.test")));
+	}
+
+	@Test
+	void laggingReplicaFallsBackToThePrimary() throws Exception {
+		replica.update("UPDATE replica_lag SET seconds = 60");
+		replicaDataSource.checkReplicas();
+
+		assertFalse(onFreshThread(() -> exists("replica@crm.test")));
+
+		replica.update("UPDATE replica_lag SET seconds = 1");
+		replicaDataSource.checkReplicas();
+
+		assertTrue(onFreshThread(() -> exists("replica@crm.test")));
+	}
+
+	@Test
+	void readsFollowingAWriteStayOnThePrimary() throws Exception {
+		userRepo.save(new User(null, "Primary", "primary@crm.test", "Executive", "Sales", null, null));
+
+		assertTrue(exists("primary@crm.test"));
+		assertFalse(onFreshThread(() -> exists("primary@crm.test")));
+	}
+
+	@Test
+	void userLookupCacheConfirmsUnknownUsersOnThePrimary() throws Exception {
+		// Only on the primary, as if the replica had not caught up yet
+		userRepo.save(new User(null, "Cached", "cached@crm.test", "Executive", "Sales", null, null));
+
+		// Positive answers come straight from the replica
+		assertTrue(onFreshThread(() -> userLookupCache.exists("replica@crm.test", "Executive")));
+		assertTrue(onFreshThread(() -> userLookupCache.exists("cached@crm.test", "Executive")));
+		assertFalse(onFreshThread(() -> {
+			boolean unknown = userLookupCache.exists("unknown@crm.test", "Executive");
+			// The check on the primary did not keep this thread's reads there
+			return unknown || !exists("replica@crm.test");
+		}));
+	}
+
+	private boolean exists(String email) {
+		return userRepo.findByUserEmailAndUserRole(email, "Executive").isPresent();
+	}
+
+	private <T> T onFreshThread(Callable<T> task) throws Exception {
+		return freshThreads.submit(task).get();
+	}
+}
@@ -0,0 +1,74 @@
+package com.crm.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import com.crm.backend.services.Role;
+
+class RoleAuthorizationManagerTests {
+
+	private final RoleAuthorizationManager manager = RoleAuthorizationManager.builder()
+			.allow("/api/v1/users", Role.ADMINISTRATOR)
+			.allow("/api/v1/sales", Role.SALES_MANAGER, Role.SALES_REPRESENTATIVE)
+			.allow("/api/v1/sales/reports", Role.SALES_MANAGER)
+			.build();
+
+	@Test
+	void allowsOnlyListedRolesUnderAPrefix() {
+		assertTrue(granted(Role.ADMINISTRATOR, "/api/v1/users"));
+		assertTrue(granted(Role.ADMINISTRATOR, "/api/v1/users/export"));
+		assertFalse(granted(Role.EXECUTIVE, "/api/v1/users/export"));
+		assertTrue(granted(Role.SALES_REPRESENTATIVE, "/api/v1/sales/leads"));
+	}
+
+	@Test
+	void longestPrefixWins() {
+		assertTrue(granted(Role.SALES_MANAGER, "/api/v1/sales/reports/q3"));
+		assertFalse(granted(Role.SALES_REPRESENTATIVE, "/api/v1/sales/reports/q3"));
+	}
+
+	@Test
+	void matchesWholePathSegmentsOnly() {
+		assertTrue(granted(Role.EXECUTIVE, "/api/v1/usersettings"));
+	}
+
+	@Test
+	void matchesTheDecodedPathWithinTheApplication() {
+		assertFalse(granted(Role.SALES_REPRESENTATIVE, "/api/v1/%75sers"));
+		assertFalse(granted(Role.SALES_REPRESENTATIVE, "/api/v1/%75sers/export"));
+		assertFalse(granted(Role.SALES_REPRESENTATIVE, "/api/v1/users;jsessionid=x/export"));
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/crm/api/v1/users");
+		request.setContextPath("/crm");
+		Authentication user = new UsernamePasswordAuthenticationToken("user@crm.test", null,
+				Role.SALES_REPRESENTATIVE.authorities());
+		assertFalse(manager.authorize(() -> user, new RequestAuthorizationContext(request)).isGranted());
+	}
+
+	@Test
+	void requiresAnAuthenticatedUserElsewhere() {
+		assertTrue(granted(Role.EXECUTIVE, "/api/v1/anything"));
+		Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymous",
+				List.of(new SimpleGrantedAuthority("ROLE_ANONYMOUS")));
+		assertFalse(manager.authorize(() -> anonymous, context("/api/v1/anything")).isGranted());
+	}
+
+	private boolean granted(Role role, String path) {
+		Authentication user = new UsernamePasswordAuthenticationToken("user@crm.test", null, role.authorities());
+		return manager.authorize(() -> user, context(path)).isGranted();
+	}
+
+	private static RequestAuthorizationContext context(String path) {
+		return new RequestAuthorizationContext(new MockHttpServletRequest("GET", path));
+	}
+}
@@ -0,0 +1,114 @@
+package com.crm.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.crm.backend.dto.TokenClaims;
+import com.crm.backend.services.JwtKeyRing;
+import com.crm.backend.services.JwtService;
+import com.crm.backend.services.Role;
+import com.crm.backend.services.TokenRevocationService;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VerifiedTokenCacheTests {
+
+	private final JwtKeyRing keyRing = JwtKeyRing.ephemeral();
+	private final JwtService jwtService = new JwtService(keyRing, new SimpleMeterRegistry());
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final TokenRevocationService revocationService = Mockito.mock(TokenRevocationService.class);
+	private final VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, revocationService, meterRegistry, true, 100);
+
+	@Test
+	void reusesVerificationButNotAuthenticationForRepeatedToken() {
+		String token = jwtService.generateAccessToken("user@crm.test", Role.EXECUTIVE);
+
+		var first = cache.authenticate(token);
+		first.setDetails("request one");
+		var second = cache.authenticate(token);
+
+		assertNotSame(first, second);
+		assertNull(second.getDetails());
+		assertEquals("user@crm.test", second.getName());
+		assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+	}
+
+	@Test
+	void rejectsTamperedToken() {
+		String token = jwtService.generateAccessToken("user@crm.test", Role.EXECUTIVE);
+
+		assertNull(cache.authenticate(token.substring(0, token.length() - 2) + "xx"));
+	}
+
+	@Test
+	void rejectsRefreshTokenAsBearer() {
+		String token = jwtService.generateRefreshToken("user@crm.test", Role.EXECUTIVE, UUID.randomUUID().toString(), 0);
+
+		assertNull(cache.authenticate(token));
+	}
+
+	@Test
+	void rejectsCachedTokenOnceSessionIsRevoked() {
+		UUID familyId = UUID.randomUUID();
+		String token = jwtService.generateAccessToken("user@crm.test", Role.EXECUTIVE, familyId.toString());
+		assertNotNull(cache.authenticate(token));
+
+		Mockito.when(revocationService.isRevoked(familyId)).thenReturn(true);
+
+		assertNull(cache.authenticate(token));
+	}
+
+	@Test
+	void grantsTheRoleItselfAsAuthority() {
+		String token = jwtService.generateAccessToken("user@crm.test", Role.FINANCE_OFFICER);
+
+		assertSame(Role.FINANCE_OFFICER, cache.authenticate(token).getAuthorities().iterator().next());
+	}
+
+	@Test
+	void acceptsTokensWithLegacyRoleNameClaim() {
+		String token = Jwts.builder()
+				.setHeaderParam(JwsHeader.KEY_ID, keyRing.activeKey().kid())
+				.setSubject("user@crm.test")
+				.claim("typ", "access")
+				.claim("role", "Sales Manager")
+				.setExpiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(keyRing.activeKey().signingKey(), keyRing.activeKey().algorithm())
+				.compact();
+
+		assertSame(Role.SALES_MANAGER, cache.authenticate(token).getAuthorities().iterator().next());
+	}
+
+	@Test
+	void introspectsBatchInRequestOrder() {
+		UUID revokedFamily = UUID.randomUUID();
+		Mockito.when(revocationService.isRevoked(revokedFamily)).thenReturn(true);
+		String active = jwtService.generateAccessToken("first@crm.test", Role.EXECUTIVE);
+		String revoked = jwtService.generateAccessToken("second@crm.test", Role.EXECUTIVE, revokedFamily.toString());
+		String other = jwtService.generateAccessToken("third@crm.test", Role.SALES_MANAGER);
+
+		// Chunks of one token on two threads, so the batch is split across the pool
+		TokenIntrospector introspector = new TokenIntrospector(cache, "", 2, 1, 10, 1, 10, 1);
+		TokenClaims[] claims = introspector.introspect(Arrays.asList(active, "not-a-token", null, revoked, other));
+		introspector.shutdown();
+
+		assertEquals(5, claims.length);
+		assertEquals("first@crm.test", claims[0].subject());
+		assertNull(claims[1]);
+		assertNull(claims[2]);
+		assertNull(claims[3]);
+		assertSame(Role.SALES_MANAGER, claims[4].role());
+	}
+}
@@ -0,0 +1,119 @@
+package com.crm.backend.controllers;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.crm.backend.dto.TokenPair;
+import com.crm.backend.services.RefreshTokenService;
+import com.crm.backend.services.Role;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(properties = {
+	"crm.auth.introspect.max-batch-size=20",
+	"crm.auth.introspect.clients=gateway:gateway-secret,limited:limited-secret",
+	"crm.auth.introspect.client.capacity=5",
+	"crm.auth.introspect.client.period-seconds=60"
+})
+@AutoConfigureMockMvc
+class TokenControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void introspectsBatchForAuthenticatedClient() throws Exception {
+		TokenPair session = refreshTokenService.startSession("gateway@crm.test", Role.CUSTOMER_SUPPORT);
+
+		introspect(List.of(session.accessToken(), session.refreshToken(), "garbage"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.tokens", hasSize(3)))
+				.andExpect(jsonPath("$.tokens[0].active").value(true))
+				.andExpect(jsonPath("$.tokens[0].sub").value("gateway@crm.test"))
+				.andExpect(jsonPath("$.tokens[0].role").value("Customer Support"))
+				.andExpect(jsonPath("$.tokens[0].exp").isNumber())
+				.andExpect(content().string(containsString("{\"active\":false}")))
+				.andExpect(jsonPath("$.tokens[2].sub").doesNotExist());
+	}
+
+	@Test
+	void requiresClientCredentials() throws Exception {
+		TokenPair session = refreshTokenService.startSession("gateway@crm.test", Role.CUSTOMER_SUPPORT);
+
+		for (String credentials : new String[] { null, "gateway:wrong", "other:gateway-secret" }) {
+			mockMvc.perform(request(List.of(session.accessToken()), credentials))
+					.andExpect(status().isUnauthorized())
+					.andExpect(header().exists(HttpHeaders.WWW_AUTHENTICATE))
+					.andExpect(jsonPath("$.tokens").doesNotExist());
+		}
+		// A user's bearer token is not a client credential
+		mockMvc.perform(post("/api/v1/auth/token/introspect")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + session.accessToken())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(Map.of("tokens", List.of(session.accessToken())))))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void rateLimitsEachClient() throws Exception {
+		int status;
+		int requests = 0;
+		do {
+			status = mockMvc.perform(request(List.of("token"), "limited:limited-secret"))
+					.andReturn().getResponse().getStatus();
+			requests++;
+		} while (status == 200 && requests < 10);
+
+		assertEquals(429, status);
+		assertEquals(6, requests);
+	}
+
+	@Test
+	void rejectsOversizedBatch() throws Exception {
+		introspect(Collections.nCopies(21, "token"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.status").value("error"));
+	}
+
+	private ResultActions introspect(List<String> tokens) throws Exception {
+		return mockMvc.perform(request(tokens, "gateway:gateway-secret"));
+	}
+
+	private MockHttpServletRequestBuilder request(List<String> tokens, String credentials) throws Exception {
+		MockHttpServletRequestBuilder request = post("/api/v1/auth/token/introspect")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(Map.of("tokens", tokens)));
+		if (credentials != null) {
+			request.header(HttpHeaders.AUTHORIZATION,
+					"Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+		}
+		return request;
+	}
+}
@@ -0,0 +1,118 @@
+package com.crm.backend.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.crm.backend.services.JwtService;
+import com.crm.backend.services.Role;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(properties = {
+	"crm.user-export.chunk-size=100"
+})
+@AutoConfigureMockMvc
+class UserExportControllerTests {
+
+	private static final int ROWS = 1050;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void seed() {
+		jdbcTemplate.update("DELETE FROM user_data");
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 0; i < ROWS; i++) {
+			rows.add(new Object[] { i == 0 ? "Doe, \"Jo\"" : "User " + i, "user" + i + "@crm.test", "Executive",
+					"Sales", now, now });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO user_data "
+				+ "(user_name, user_email, user_role, department, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)",
+				rows);
+	}
+
+	@Test
+	void streamsEveryRowAsCsv() throws Exception {
+		String csv = export("csv", false).getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+		String[] lines = csv.split("\n");
+		assertEquals(ROWS + 1, lines.length);
+		assertEquals("user_id,user_name,user_email,user_role,department,created_at,updated_at", lines[0]);
+		assertEquals("\"Doe, \"\"Jo\"\"\",user0@crm.test", lines[1].substring(lines[1].indexOf(',') + 1,
+				lines[1].indexOf(",Executive")));
+	}
+
+	@Test
+	void gzipsNdjsonWhenAccepted() throws Exception {
+		MvcResult result = export("ndjson", true);
+
+		byte[] body;
+		try (GZIPInputStream in = new GZIPInputStream(
+				new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+			body = in.readAllBytes();
+		}
+		String[] lines = new String(body, StandardCharsets.UTF_8).split("\n");
+		assertEquals(ROWS, lines.length);
+		JsonNode last = objectMapper.readTree(lines[ROWS - 1]);
+		assertEquals("user1049@crm.test", last.get("user_email").asText());
+	}
+
+	@Test
+	void refusesNonAdministratorsOnPercentEncodedPaths() throws Exception {
+		String token = jwtService.generateAccessToken("rep@crm.test", Role.SALES_REPRESENTATIVE);
+
+		for (String path : List.of("/api/v1/users/export", "/api/v1/%75sers/export", "/api/v1/%75sers")) {
+			mockMvc.perform(get(URI.create(path))
+					.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+					.andExpect(status().isForbidden());
+		}
+	}
+
+	private MvcResult export(String format, boolean gzip) throws Exception {
+		String token = jwtService.generateAccessToken("admin@crm.test", Role.ADMINISTRATOR);
+		MvcResult started = mockMvc.perform(get("/api/v1/users/export")
+				.param("format", format)
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.header(HttpHeaders.ACCEPT_ENCODING, gzip ? "gzip, deflate" : "identity"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(gzip ? header().string(HttpHeaders.CONTENT_ENCODING, "gzip")
+						: header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andReturn();
+	}
+}
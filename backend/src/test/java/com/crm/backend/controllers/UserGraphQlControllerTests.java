@@ -0,0 +1,142 @@
+package com.crm.backend.controllers;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.crm.backend.entity.Administrator;
+import com.crm.backend.entity.User;
+import com.crm.backend.repository.AdministratorRepo;
+import com.crm.backend.repository.UserRepo;
+import com.crm.backend.services.JwtService;
+import com.crm.backend.services.Role;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+	"spring.jpa.properties.hibernate.generate_statistics=true",
+	// Keeps the outbox drainers from adding statements to the counts
+	"crm.otp.outbox.workers=0"
+})
+@AutoConfigureMockMvc
+class UserGraphQlControllerTests {
+
+	private static final String USERS_WITH_ADMINISTRATORS = """
+			{ users(department: "Sales", limit: 100) { userEmail administrator { userRole user { userEmail } } } }""";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private AdministratorRepo administratorRepo;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private String adminToken;
+
+	@BeforeEach
+	void seed() {
+		administratorRepo.deleteAll();
+		userRepo.deleteAll();
+		for (int i = 0; i < 20; i++) {
+			User user = userRepo.save(new User(null, "User " + i, "user" + i + "@crm.test",
+					i % 4 == 0 ? "administrator" : "Sales Representative", i < 15 ? "Sales" : "Support", null, null));
+			if (i % 4 == 0) {
+				Administrator administrator = new Administrator();
+				administrator.setUserId(user.getUserId());
+				administrator.setUserName(user.getUserName());
+				administrator.setUserEmail(user.getUserEmail());
+				administrator.setUserRole("administrator");
+				administratorRepo.save(administrator);
+			}
+		}
+		adminToken = jwtService.generateAccessToken("user0@crm.test", Role.ADMINISTRATOR);
+	}
+
+	@Test
+	void resolvesRelatedRecordsInBatches() throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		graphQl(Map.of("query", USERS_WITH_ADMINISTRATORS))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.users", hasSize(15)))
+				.andExpect(jsonPath("$.data.users[0].administrator.user.userEmail").value("user0@crm.test"))
+				.andExpect(jsonPath("$.data.users[1].administrator").doesNotExist());
+
+		// Users, then one batch of administrators, then one batch of their users
+		assertEquals(3, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void rejectsQueriesOverTheComplexityLimit() throws Exception {
+		graphQl(Map.of("query", "{ users(limit: 100000) { userEmail administrator { user { userEmail } } } }"))
+				.andExpect(jsonPath("$.errors[0].message", containsString("complexity")))
+				.andExpect(jsonPath("$.data").doesNotExist());
+	}
+
+	@Test
+	void acceptsPersistedQueryByHashOnceRegistered() throws Exception {
+		String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+				.digest(USERS_WITH_ADMINISTRATORS.getBytes(StandardCharsets.UTF_8)));
+		Map<String, Object> extensions = Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash));
+
+		graphQl(Map.of("extensions", extensions))
+				.andExpect(jsonPath("$.errors[0].message").value("PersistedQueryNotFound"));
+
+		graphQl(Map.of("query", USERS_WITH_ADMINISTRATORS, "extensions", extensions))
+				.andExpect(jsonPath("$.data.users", hasSize(15)));
+
+		graphQl(Map.of("extensions", extensions))
+				.andExpect(jsonPath("$.data.users", hasSize(15)));
+	}
+
+	@Test
+	void requiresAdministratorRole() throws Exception {
+		String token = jwtService.generateAccessToken("user1@crm.test", Role.SALES_REPRESENTATIVE);
+
+		mockMvc.perform(post("/graphql")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(Map.of("query", "{ users { userEmail } }"))))
+				.andExpect(status().isForbidden());
+	}
+
+	private ResultActions graphQl(Map<String, Object> body) throws Exception {
+		return mockMvc.perform(post("/graphql")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(body)));
+	}
+}
@@ -0,0 +1,355 @@
+package com.crm.backend.perf;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.crm.backend.entity.User;
+import com.crm.backend.repository.UserRepo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.store.MailFolder;
+import com.icegreen.greenmail.store.StoredMessage;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * End-to-end load test of the OTP login flow: {@code /generate}, reading
+ * the code from an in-process SMTP server, {@code /verify}, then a series of
+ * authenticated requests with the issued access token.
+ *
+ * Runs only with {@code -Pperf}. Load and latency budgets are system
+ * properties, for example:
+ * {@code mvn -Pperf test -Dperf.users=5000 -Dperf.budget.verify.p99-ms=500}.
+ * At most {@code perf.concurrency} users (default 200) run their flow at
+ * once, each on a client thread from a fixed pool.
+ * The test fails if any p99 budget or the error-rate budget is exceeded.
+ * The report is logged; set {@code perf.report-file} to also write it to a
+ * file.
+ */
+@Tag("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+	"spring.mail.port=3025",
+	"server.tomcat.max-connections=20000",
+	// The authenticated probe hits /actuator/health/ping, which needs components shown
+	"management.endpoint.health.show-components=always",
+	// Every virtual user shares one client IP
+	"crm.rate-limit.enabled=false",
+	"logging.level.com.crm.backend.perf=INFO"
+})
+@Slf4j
+class OtpLoginFlowLoadTests {
+
+	private static final String ROLE = "Sales Manager";
+	private static final Pattern OTP_PATTERN = Pattern.compile("Your OTP is: (\\d{6})");
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP).withPerMethodLifecycle(false);
+
+	@LocalServerPort
+	private int port;
+
+	@Value("${spring.threads.virtual.enabled:false}")
+	private boolean virtualThreads;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+	private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+	private final AtomicInteger requests = new AtomicInteger();
+	private final AtomicInteger errors = new AtomicInteger();
+
+	@Test
+	void otpLoginFlowMeetsLatencyBudgets() throws Exception {
+		int users = Integer.getInteger("perf.users", 1000);
+		int concurrency = Math.min(users, Integer.getInteger("perf.concurrency", 200));
+		int authenticatedRequests = Integer.getInteger("perf.authenticated-requests", 10);
+		for (String step : List.of("generate", "mail", "verify", "authenticated")) {
+			latencies.put(step, new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3));
+		}
+
+		seedUsers(users);
+		PoolSampler pool = new PoolSampler(((HikariDataSource) dataSource).getHikariPoolMXBean());
+
+		List<Callable<Void>> virtualUsers = new ArrayList<>(users);
+		for (int i = 0; i < users; i++) {
+			String email = email(i);
+			virtualUsers.add(() -> {
+				runFlow(email, authenticatedRequests);
+				return null;
+			});
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+		long start = System.nanoTime();
+		pool.start();
+		try {
+			executor.invokeAll(virtualUsers);
+		} finally {
+			pool.stop();
+			executor.shutdownNow();
+		}
+		double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+		double errorRate = requests.get() == 0 ? 1.0 : (double) errors.get() / requests.get();
+		report(users, concurrency, elapsedSeconds, errorRate, pool);
+
+		List<String> violations = new ArrayList<>();
+		for (Map.Entry<String, Histogram> entry : latencies.entrySet()) {
+			long budgetMillis = Long.getLong("perf.budget." + entry.getKey() + ".p99-ms", 5000);
+			double p99Millis = entry.getValue().getValueAtPercentile(99) / 1000.0;
+			if (p99Millis > budgetMillis) {
+				violations.add(String.format("%s p99 %.1f ms > %d ms", entry.getKey(), p99Millis, budgetMillis));
+			}
+		}
+		double errorBudget = Double.parseDouble(System.getProperty("perf.budget.error-rate", "0.01"));
+		if (errorRate > errorBudget) {
+			violations.add(String.format("error rate %.4f > %.4f", errorRate, errorBudget));
+		}
+		assertTrue(violations.isEmpty(), "Budgets exceeded: " + violations);
+	}
+
+	// ============ FLOW ============ //
+
+	private void runFlow(String email, int authenticatedRequests) {
+		try {
+			if (!post("generate", "/api/v1/auth/otp/generate",
+					"{\"email\":\"" + email + "\",\"role\":\"" + ROLE + "\"}")) {
+				return;
+			}
+
+			long mailStart = System.nanoTime();
+			String otp = awaitOtp(email);
+			if (otp == null) {
+				errors.incrementAndGet();
+				return;
+			}
+			record("mail", mailStart);
+
+			String accessToken = verify(email, otp);
+			if (accessToken == null) {
+				return;
+			}
+
+			for (int i = 0; i < authenticatedRequests; i++) {
+				HttpRequest request = HttpRequest.newBuilder(uri("/actuator/health/ping"))
+						.timeout(REQUEST_TIMEOUT)
+						.header("Authorization", "Bearer " + accessToken)
+						.GET()
+						.build();
+				send("authenticated", request);
+			}
+		} catch (Exception e) {
+			errors.incrementAndGet();
+		}
+	}
+
+	private boolean post(String step, String path, String json) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(uri(path))
+				.timeout(REQUEST_TIMEOUT)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json))
+				.build();
+		return send(step, request) != null;
+	}
+
+	private String verify(String email, String otp) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(uri("/api/v1/auth/otp/verify"))
+				.timeout(REQUEST_TIMEOUT)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(
+						"{\"email\":\"" + email + "\",\"otp\":\"" + otp + "\",\"userRole\":\"" + ROLE + "\"}"))
+				.build();
+		String body = send("verify", request);
+		if (body == null) {
+			return null;
+		}
+		JsonNode json = objectMapper.readTree(body);
+		if (!"success".equals(json.path("status").asText())) {
+			errors.incrementAndGet();
+			return null;
+		}
+		return json.path("access_token").asText();
+	}
+
+	/**
+	 * Sends a request and records its latency.
+	 *
+	 * @return the response body, or null if the request failed
+	 */
+	private String send(String step, HttpRequest request) throws Exception {
+		requests.incrementAndGet();
+		long start = System.nanoTime();
+		HttpResponse<String> response;
+		try {
+			response = http.send(request, HttpResponse.BodyHandlers.ofString());
+		} catch (Exception e) {
+			errors.incrementAndGet();
+			return null;
+		}
+		record(step, start);
+		if (response.statusCode() / 100 != 2) {
+			errors.incrementAndGet();
+			return null;
+		}
+		return response.body();
+	}
+
+	private String awaitOtp(String email) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (System.nanoTime() < deadline) {
+			GreenMailUser user = greenMail.getUserManager().getUserByEmail(email);
+			if (user != null) {
+				MailFolder inbox = greenMail.getManagers().getImapHostManager().getInbox(user);
+				List<StoredMessage> messages = inbox.getMessages();
+				if (!messages.isEmpty()) {
+					Matcher matcher = OTP_PATTERN.matcher(GreenMailUtil.getBody(messages.get(0).getMimeMessage()));
+					return matcher.find() ? matcher.group(1) : null;
+				}
+			}
+			Thread.sleep(20);
+		}
+		return null;
+	}
+
+	// ============ SETUP AND REPORTING ============ //
+
+	private void seedUsers(int count) {
+		List<User> batch = new ArrayList<>(500);
+		for (int i = 0; i < count; i++) {
+			User user = new User();
+			user.setUserName("Load User " + i);
+			user.setUserEmail(email(i));
+			user.setUserRole(ROLE);
+			batch.add(user);
+			if (batch.size() == 500) {
+				userRepo.saveAll(batch);
+				batch.clear();
+			}
+		}
+		userRepo.saveAll(batch);
+	}
+
+	private static String email(int i) {
+		return "load-" + i + "@crm.test";
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + port + path);
+	}
+
+	private void record(String step, long startNanos) {
+		latencies.get(step).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+	}
+
+	private void report(int users, int concurrency, double elapsedSeconds, double errorRate, PoolSampler pool)
+			throws Exception {
+		StringBuilder out = new StringBuilder();
+		out.append(String.format("OTP login flow: %d virtual users, %d at a time, in %.1f s (%s threads, Java %s)%n",
+				users, concurrency, elapsedSeconds,
+				virtualThreads && Runtime.version().feature() >= 21 ? "virtual" : "platform",
+				Runtime.version().feature()));
+		out.append(String.format("%-14s %9s %9s %9s %9s %9s %9s%n",
+				"step", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "p999 ms"));
+		for (Map.Entry<String, Histogram> entry : latencies.entrySet()) {
+			Histogram h = entry.getValue();
+			out.append(String.format("%-14s %9d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+					entry.getKey(), h.getTotalCount(), h.getTotalCount() / elapsedSeconds,
+					h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(95) / 1000.0,
+					h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0));
+		}
+		out.append(String.format("requests %d, errors %d, error rate %.4f%n", requests.get(), errors.get(), errorRate));
+		out.append(String.format("db pool: max active %d, max waiting %d, saturated %.1f%% of samples%n",
+				pool.maxActive.get(), pool.maxWaiting.get(), pool.saturatedPercent()));
+		log.info("\n{}", out);
+
+		String reportFile = System.getProperty("perf.report-file");
+		if (reportFile != null) {
+			Path path = Path.of(reportFile);
+			Files.createDirectories(path.toAbsolutePath().getParent());
+			Files.writeString(path, out.toString());
+		}
+	}
+
+	/**
+	 * Samples the Hikari pool to report how close it came to exhaustion.
+	 */
+	private static final class PoolSampler {
+
+		private final HikariPoolMXBean pool;
+		private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+		private final AtomicInteger maxActive = new AtomicInteger();
+		private final AtomicInteger maxWaiting = new AtomicInteger();
+		private final AtomicLong samples = new AtomicLong();
+		private final AtomicLong saturatedSamples = new AtomicLong();
+
+		PoolSampler(HikariPoolMXBean pool) {
+			this.pool = pool;
+		}
+
+		void start() {
+			sampler.scheduleAtFixedRate(() -> {
+				int waiting = pool.getThreadsAwaitingConnection();
+				maxActive.accumulateAndGet(pool.getActiveConnections(), Math::max);
+				maxWaiting.accumulateAndGet(waiting, Math::max);
+				samples.incrementAndGet();
+				if (waiting > 0) {
+					saturatedSamples.incrementAndGet();
+				}
+			}, 0, 50, TimeUnit.MILLISECONDS);
+		}
+
+		void stop() {
+			sampler.shutdownNow();
+		}
+
+		double saturatedPercent() {
+			return samples.get() == 0 ? 0 : 100.0 * saturatedSamples.get() / samples.get();
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.crm.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+	"crm.audit.idle-ms=10"
+})
+class AuthAuditLogTests {
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void writesTokenIssuanceToTheAuditTable() throws Exception {
+		refreshTokenService.startSession("audited@crm.test", Role.FINANCE_OFFICER);
+
+		Map<String, Object> row = null;
+		for (int i = 0; i < 200 && row == null; i++) {
+			List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+					"SELECT event_code, role_code FROM auth_audit WHERE email = ?", "audited@crm.test");
+			if (rows.isEmpty()) {
+				Thread.sleep(10);
+			} else {
+				row = rows.get(0);
+			}
+		}
+
+		assertEquals(AuthAuditEvent.TOKEN_ISSUED.code(), ((Number) row.get("event_code")).byteValue());
+		assertEquals(Role.FINANCE_OFFICER.code(), ((Number) row.get("role_code")).intValue());
+	}
+
+	@Test
+	void dropsAndCountsEntriesWhenTheBufferIsFull() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		List<String> written = new ArrayList<>();
+		AuthAuditLog auditLog = new AuthAuditLog(batch -> {
+			for (int i = 0; i < batch.size; i++) {
+				written.add(AuthAuditEvent.fromCode(batch.events[i]) + " " + batch.emails[i] + " " + batch.roles[i]);
+			}
+		}, 4, 3, 10, meterRegistry);
+
+		for (int i = 0; i < 6; i++) {
+			auditLog.record(AuthAuditEvent.OTP_VERIFIED, "user" + i + "@crm.test", Role.EXECUTIVE);
+		}
+		assertEquals(4, auditLog.drain());
+		auditLog.record(AuthAuditEvent.OTP_MALFORMED, "late@crm.test", "not a role");
+		assertEquals(1, auditLog.drain());
+
+		assertEquals(List.of("OTP_VERIFIED user0@crm.test 5", "OTP_VERIFIED user1@crm.test 5",
+				"OTP_VERIFIED user2@crm.test 5", "OTP_VERIFIED user3@crm.test 5", "OTP_MALFORMED late@crm.test -1"),
+				written);
+		assertEquals(2, meterRegistry.get("auth.audit.events").tag("outcome", "dropped").counter().count());
+		assertEquals(5, meterRegistry.get("auth.audit.events").tag("outcome", "written").counter().count());
+	}
+
+	@Test
+	void rollsTheAuditFileAtItsSizeLimit() throws Exception {
+		Path file = tempDir.resolve("auth-audit.bin");
+		FileAuthAuditSink sink = new FileAuthAuditSink(file, 64, 2);
+		AuthAuditLog auditLog = new AuthAuditLog(sink, 8, 8, 10, new SimpleMeterRegistry());
+
+		for (int round = 0; round < 4; round++) {
+			auditLog.record(AuthAuditEvent.OTP_ISSUED, "first@crm.test", Role.SALES_MANAGER);
+			auditLog.record(AuthAuditEvent.TOKEN_ISSUED, "second@crm.test", Role.SALES_MANAGER);
+			auditLog.drain();
+		}
+		sink.close();
+
+		assertTrue(Files.exists(tempDir.resolve("auth-audit.bin.1")));
+		assertTrue(Files.exists(tempDir.resolve("auth-audit.bin.2")));
+		assertTrue(Files.size(file) <= 64);
+		try (DataInputStream in = new DataInputStream(Files.newInputStream(tempDir.resolve("auth-audit.bin.1")))) {
+			assertArrayEquals(new byte[] {'C', 'R', 'M', 'A', 1}, in.readNBytes(5));
+			in.readLong();
+			assertEquals(AuthAuditEvent.OTP_ISSUED.code(), in.readByte());
+			assertEquals(Role.SALES_MANAGER.code(), in.readByte());
+			assertEquals("first@crm.test", new String(in.readNBytes(in.readShort())));
+		}
+	}
+}
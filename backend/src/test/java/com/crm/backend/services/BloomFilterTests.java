@@ -0,0 +1,33 @@
+package com.crm.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTests {
+
+	@Test
+	void neverMissesInsertedKeysAndStaysNearTargetFalsePositiveRate() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		UUID[] inserted = new UUID[10_000];
+		for (int i = 0; i < inserted.length; i++) {
+			inserted[i] = UUID.randomUUID();
+			filter.put(inserted[i].getMostSignificantBits(), inserted[i].getLeastSignificantBits());
+		}
+
+		for (UUID id : inserted) {
+			assertTrue(filter.mightContain(id.getMostSignificantBits(), id.getLeastSignificantBits()));
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			UUID id = UUID.randomUUID();
+			if (filter.mightContain(id.getMostSignificantBits(), id.getLeastSignificantBits())) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+	}
+}
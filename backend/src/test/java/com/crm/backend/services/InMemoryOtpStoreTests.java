@@ -0,0 +1,90 @@
+package com.crm.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class InMemoryOtpStoreTests {
+
+	private final InMemoryOtpStore store = new InMemoryOtpStore(300, 1000, 3);
+
+	@AfterEach
+	void shutdown() {
+		store.shutdown();
+	}
+
+	@Test
+	void consumesEachCodeOnlyOnce() {
+		LocalDateTime now = LocalDateTime.now();
+		store.save("a@crm.test", "Executive", 123456L, now);
+
+		assertFalse(store.consume("a@crm.test", "Sales Manager", 123456L, now.minusMinutes(5)).isVerified());
+		assertFalse(store.consume("a@crm.test", "Executive", 654321L, now.minusMinutes(5)).isVerified());
+		assertTrue(store.consume("a@crm.test", "Executive", 123456L, now.minusMinutes(5)).isVerified());
+		assertFalse(store.consume("a@crm.test", "Executive", 123456L, now.minusMinutes(5)).isVerified());
+	}
+
+	@Test
+	void discardsOnlyTheCodeThatWasNotSent() {
+		LocalDateTime now = LocalDateTime.now();
+		store.save("a@crm.test", "Executive", 123456L, now);
+		store.save("a@crm.test", "Executive", 654321L, now);
+
+		// A stale discard must not remove the code that replaced it
+		store.discard("a@crm.test", "Executive", 123456L);
+		assertEquals(654321L, store.find("a@crm.test", "Executive", 654321L).getOtp());
+
+		// Discarding the resent code brings back the one already in the inbox
+		store.discard("a@crm.test", "Executive", 654321L);
+		assertNull(store.find("a@crm.test", "Executive", 654321L));
+		assertEquals(123456L, store.find("a@crm.test", "Executive", 123456L).getOtp());
+
+		store.discard("a@crm.test", "Executive", 123456L);
+		assertNull(store.find("a@crm.test", "Executive", 123456L));
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	void rejectsCodesIssuedBeforeValidityWindow() {
+		LocalDateTime issued = LocalDateTime.now().minusMinutes(10);
+		store.save("a@crm.test", "Executive", 123456L, issued);
+
+		assertFalse(store.consume("a@crm.test", "Executive", 123456L, LocalDateTime.now().minusMinutes(5)).isVerified());
+	}
+
+	@Test
+	void evictsOldestEntriesBeyondCapacity() {
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < 5; i++) {
+			store.save("user" + i + "@crm.test", "Executive", 100000L + i, now);
+		}
+
+		assertEquals(3, store.size());
+		assertNull(store.find("user0@crm.test", "Executive", 100000L));
+		assertEquals(100004L, store.find("user4@crm.test", "Executive", 100004L).getOtp());
+	}
+
+	@Test
+	void sweepsEveryEntryWithinATickOfItsExpiry() throws Exception {
+		InMemoryOtpStore shortLived = new InMemoryOtpStore(1, 100, 1000);
+		try {
+			// Spread over several ticks so expiries fall early and late within a tick
+			for (int i = 0; i < 20; i++) {
+				shortLived.save("user" + i + "@crm.test", "Executive", 100000L + i, LocalDateTime.now());
+				Thread.sleep(15);
+			}
+
+			Thread.sleep(1000 + 400);
+			assertEquals(0, shortLived.size());
+		} finally {
+			shortLived.shutdown();
+		}
+	}
+
+}
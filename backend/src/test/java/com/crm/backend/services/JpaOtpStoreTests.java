@@ -0,0 +1,78 @@
+package com.crm.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.crm.backend.repository.OtpRepo;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class JpaOtpStoreTests {
+
+	@Autowired
+	private JpaOtpStore store;
+
+	@Autowired
+	private OtpRepo otpRepo;
+
+	@BeforeEach
+	void clear() {
+		otpRepo.deleteAll();
+	}
+
+	@Test
+	void reportsWhyACodeWasRejected() {
+		LocalDateTime validAfter = LocalDateTime.now().minusMinutes(5);
+		store.save("a@crm.test", "Executive", 123456L, LocalDateTime.now());
+		store.save("b@crm.test", "Executive", 654321L, LocalDateTime.now().minusMinutes(10));
+
+		assertEquals(OtpVerification.NOT_FOUND, store.consume("a@crm.test", "Executive", 111111L, validAfter));
+		assertEquals(OtpVerification.ROLE_MISMATCH, store.consume("a@crm.test", "Sales Manager", 123456L, validAfter));
+		assertEquals(OtpVerification.EXPIRED, store.consume("b@crm.test", "Executive", 654321L, validAfter));
+		assertEquals(OtpVerification.VERIFIED, store.consume("a@crm.test", "Executive", 123456L, validAfter));
+		assertEquals(OtpVerification.ALREADY_USED, store.consume("a@crm.test", "Executive", 123456L, validAfter));
+	}
+
+	@Test
+	void concurrentVerificationsConsumeACodeOnce() throws Exception {
+		LocalDateTime validAfter = LocalDateTime.now().minusMinutes(5);
+		store.save("a@crm.test", "Executive", 123456L, LocalDateTime.now());
+
+		int threads = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<OtpVerification>> results = new ArrayList<>();
+			Callable<OtpVerification> attempt = () -> {
+				start.await();
+				return store.consume("a@crm.test", "Executive", 123456L, validAfter);
+			};
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(attempt));
+			}
+			start.countDown();
+
+			int verified = 0;
+			for (Future<OtpVerification> result : results) {
+				if (result.get().isVerified()) {
+					verified++;
+				}
+			}
+			assertEquals(1, verified);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
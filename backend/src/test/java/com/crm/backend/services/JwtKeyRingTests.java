@@ -0,0 +1,67 @@
+package com.crm.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtKeyRingTests {
+
+	private static final String SECRET_1 = secret(1);
+	private static final String SECRET_2 = secret(2);
+
+	@Test
+	void tokensValidateOnEveryNodeSharingTheKeys() {
+		String keys = "k1:" + SECRET_1;
+		JwtService nodeA = service(new JwtKeyRing(keys, "", "", Duration.ofDays(7)));
+		JwtService nodeB = service(new JwtKeyRing(keys, "", "", Duration.ofDays(7)));
+
+		String token = nodeA.generateAccessToken("user@crm.test", Role.EXECUTIVE);
+
+		assertEquals("user@crm.test", nodeB.verify(token).subject());
+	}
+
+	@Test
+	void signsWithNewestActiveKeyAndStillVerifiesPendingOne() {
+		Instant future = Instant.now().plus(Duration.ofDays(1));
+		JwtKeyRing ring = new JwtKeyRing("k1:" + SECRET_1 + ",k2:" + SECRET_2 + "@" + future, "", "", Duration.ofDays(7));
+
+		assertEquals("k1", ring.activeKey().kid());
+		assertTrue(ring.verificationKeys().containsKey("k2"));
+	}
+
+	@Test
+	void retiresSupersededKeyAfterOverlap() {
+		String k2Since = Instant.now().minus(Duration.ofHours(2)).toString();
+		JwtService oldNode = service(new JwtKeyRing("k1:" + SECRET_1, "", "", Duration.ofDays(7)));
+		String token = oldNode.generateAccessToken("user@crm.test", Role.EXECUTIVE);
+
+		JwtService withinOverlap = service(new JwtKeyRing(
+				"k1:" + SECRET_1 + ",k2:" + SECRET_2 + "@" + k2Since, "", "", Duration.ofHours(3)));
+		JwtService afterOverlap = service(new JwtKeyRing(
+				"k1:" + SECRET_1 + ",k2:" + SECRET_2 + "@" + k2Since, "", "", Duration.ofHours(1)));
+
+		assertNotNull(withinOverlap.verify(token));
+		assertNull(afterOverlap.verify(token));
+	}
+
+	private static JwtService service(JwtKeyRing ring) {
+		return new JwtService(ring, new SimpleMeterRegistry());
+	}
+
+	private static String secret(int seed) {
+		byte[] bytes = new byte[32];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) (seed * 31 + i);
+		}
+		return Base64.getEncoder().encodeToString(bytes);
+	}
+}
@@ -0,0 +1,51 @@
+package com.crm.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.crm.backend.repository.SchedulerLeaseRepo;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class LeaseServiceTests {
+
+	@Autowired
+	private SchedulerLeaseRepo leaseRepo;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void secondOwnerWaitsForRelease() {
+		LeaseService first = new LeaseService(leaseRepo, transactionManager);
+		LeaseService second = new LeaseService(leaseRepo, transactionManager);
+
+		assertTrue(first.tryAcquire("released-job", Duration.ofHours(1)));
+		assertFalse(second.tryAcquire("released-job", Duration.ofHours(1)));
+		// The holder renews its own lease
+		assertTrue(first.tryAcquire("released-job", Duration.ofHours(1)));
+
+		first.release("released-job");
+		assertTrue(second.tryAcquire("released-job", Duration.ofHours(1)));
+		assertFalse(first.tryAcquire("released-job", Duration.ofHours(1)));
+	}
+
+	@Test
+	void secondOwnerTakesOverAnExpiredLease() throws Exception {
+		LeaseService first = new LeaseService(leaseRepo, transactionManager);
+		LeaseService second = new LeaseService(leaseRepo, transactionManager);
+
+		assertTrue(first.tryAcquire("expiring-job", Duration.ofMillis(200)));
+		assertFalse(second.tryAcquire("expiring-job", Duration.ofHours(1)));
+
+		Thread.sleep(300);
+		assertTrue(second.tryAcquire("expiring-job", Duration.ofHours(1)));
+		assertFalse(first.tryAcquire("expiring-job", Duration.ofHours(1)));
+	}
+}
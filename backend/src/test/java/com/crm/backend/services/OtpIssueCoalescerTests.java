@@ -0,0 +1,73 @@
+package com.crm.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.crm.backend.services.OtpIssueCoalescer.Outcome;
+
+class OtpIssueCoalescerTests {
+
+	private final OtpIssueCoalescer coalescer = new OtpIssueCoalescer(60, 1000);
+
+	@Test
+	void concurrentDuplicatesShareOneIssue() throws Exception {
+		AtomicInteger issues = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Outcome>> outcomes = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				outcomes.add(executor.submit(() -> coalescer.issue("user@crm.test", "Executive", () -> {
+					issues.incrementAndGet();
+					await(release);
+					return true;
+				})));
+			}
+			Thread.sleep(100);
+			release.countDown();
+
+			int issued = 0;
+			for (Future<Outcome> outcome : outcomes) {
+				issued += outcome.get(5, TimeUnit.SECONDS) == Outcome.ISSUED ? 1 : 0;
+			}
+			assertEquals(1, issued);
+			assertEquals(1, issues.get());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(Outcome.COALESCED, coalescer.issue("user@crm.test", "Executive", () -> true));
+		assertEquals(Outcome.ISSUED, coalescer.issue("user@crm.test", "Sales Manager", () -> true));
+		coalescer.forget("user@crm.test", "Executive");
+		assertEquals(Outcome.ISSUED, coalescer.issue("user@crm.test", "Executive", () -> true));
+	}
+
+	@Test
+	void failuresAreNotRemembered() {
+		assertEquals(Outcome.REJECTED, coalescer.issue("new@crm.test", "Executive", () -> false));
+		assertThrows(MailQueueFullException.class, () -> coalescer.issue("new@crm.test", "Executive", () -> {
+			throw new MailQueueFullException();
+		}));
+
+		assertEquals(Outcome.ISSUED, coalescer.issue("new@crm.test", "Executive", () -> true));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
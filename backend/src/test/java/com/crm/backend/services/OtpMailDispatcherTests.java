@@ -0,0 +1,63 @@
+package com.crm.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+
+class OtpMailDispatcherTests {
+
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	private JavaMailSenderImpl mailSender() {
+		JavaMailSenderImpl sender = new JavaMailSenderImpl();
+		sender.setHost("localhost");
+		sender.setPort(ServerSetupTest.SMTP.getPort());
+		return sender;
+	}
+
+	@Test
+	void deliversQueuedOtpsInBackground() throws Exception {
+		OtpMailDispatcher dispatcher = new OtpMailDispatcher(mailSender(), new SimpleMeterRegistry(), 100, 2, 10, 3, 10, "noreply@crm.test", false);
+		dispatcher.start();
+		try {
+			for (int i = 0; i < 25; i++) {
+				dispatcher.dispatchOtp("user" + i + "@crm.test", "12345" + (i % 10), "Executive");
+			}
+			assertTrue(greenMail.waitForIncomingEmail(5000, 25));
+		} finally {
+			dispatcher.stop();
+		}
+
+		MimeMessage first = greenMail.getReceivedMessages()[0];
+		assertEquals("Your OTP Code", first.getSubject());
+		assertTrue(GreenMailUtil.getBody(first).contains("Role: Executive"));
+	}
+
+	@Test
+	void shedsLoadWhenQueueIsFull() throws Exception {
+		// Workers are not started, so nothing drains the queue
+		OtpMailDispatcher dispatcher = new OtpMailDispatcher(mailSender(), new SimpleMeterRegistry(), 2, 1, 10, 1, 10, "noreply@crm.test", false);
+
+		dispatcher.dispatchOtp("a@crm.test", "111111", null);
+		dispatcher.dispatchOtp("b@crm.test", "222222", null);
+
+		assertFalse(dispatcher.hasCapacity());
+		assertEquals(2, dispatcher.getQueueDepth());
+		assertThrows(MailQueueFullException.class,
+			() -> dispatcher.dispatchOtp("c@crm.test", "333333", null));
+	}
+
+}
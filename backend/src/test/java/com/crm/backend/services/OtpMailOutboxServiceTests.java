@@ -0,0 +1,133 @@
+package com.crm.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crm.backend.entity.OtpMailOutbox.Status;
+import com.crm.backend.entity.User;
+import com.crm.backend.repository.OtpMailOutboxRepo;
+import com.crm.backend.repository.UserRepo;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+	"spring.mail.port=3025",
+	// Batches are drained by the tests themselves
+	"crm.otp.outbox.workers=0",
+	"crm.otp.outbox.batch-size=10"
+})
+class OtpMailOutboxServiceTests {
+
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	@Autowired
+	private OtpService otpService;
+
+	@Autowired
+	private OtpMailOutboxService outbox;
+
+	@Autowired
+	private OtpMailOutboxRepo outboxRepo;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void seed() {
+		outboxRepo.deleteAll();
+		if (userRepo.findByUserEmailAndUserRole("rep@crm.test", "Executive").isEmpty()) {
+			userRepo.save(new User(null, "Rep", "rep@crm.test", "Executive", "Sales", null, null));
+		}
+	}
+
+	@Test
+	void sendsTheEmailQueuedWithTheOtp() throws Exception {
+		assertTrue(otpService.saveOtp("rep@crm.test", "Executive", 42L));
+		outbox.refreshPendingCount();
+		assertEquals(1, meterRegistry.get("otp.mail.queue.depth").gauge().value());
+
+		assertEquals(1, outbox.drainBatch());
+		assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+		assertTrue(GreenMailUtil.getBody(greenMail.getReceivedMessages()[0]).contains("Your OTP is: 000042"));
+		assertEquals(Status.SENT, outboxRepo.findAll().get(0).getStatus());
+		assertEquals(0, outbox.drainBatch());
+		outbox.refreshPendingCount();
+		assertEquals(0, meterRegistry.get("otp.mail.queue.depth").gauge().value());
+	}
+
+	@Test
+	void rolledBackOtpQueuesNoEmail() {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		assertThrows(IllegalStateException.class, () -> transaction.executeWithoutResult(status -> {
+			otpService.saveOtp("rep@crm.test", "Executive", 123456L);
+			throw new IllegalStateException("request failed after saving the OTP");
+		}));
+
+		assertEquals(0, outboxRepo.count());
+	}
+
+	@Test
+	void concurrentDrainersSendEachEmailOnce() throws Exception {
+		for (int i = 0; i < 40; i++) {
+			outbox.enqueue("user" + i + "@crm.test", "12345" + (i % 10), "Executive");
+		}
+
+		int threads = 4;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			Callable<Integer> drainer = () -> {
+				start.await();
+				int claimed = 0;
+				for (int n; (n = outbox.drainBatch()) > 0;) {
+					claimed += n;
+				}
+				return claimed;
+			};
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(drainer));
+			}
+			start.countDown();
+
+			int claimed = 0;
+			for (Future<Integer> result : results) {
+				claimed += result.get();
+			}
+			assertEquals(40, claimed);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertTrue(greenMail.waitForIncomingEmail(5000, 40));
+		assertEquals(40, greenMail.getReceivedMessages().length);
+		assertTrue(outboxRepo.findAll().stream().allMatch(row -> row.getStatus() == Status.SENT));
+	}
+}
@@ -0,0 +1,72 @@
+package com.crm.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.crm.backend.entity.Otp;
+import com.crm.backend.repository.OtpRepo;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class OtpPurgeServiceTests {
+
+	@Autowired
+	private OtpRepo otpRepo;
+
+	@Autowired
+	private LeaseService leaseService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void clearOtps() {
+		// The context, and its database, is shared with other test classes
+		otpRepo.deleteAll();
+	}
+
+	@Test
+	void deletesExpiredRowsInBoundedBatches() {
+		LocalDateTime now = LocalDateTime.now();
+		List<Otp> otps = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			// Every sixth row is still valid and sits inside the id range of a batch;
+			// later ids are older, so createdAt order runs against id order
+			otps.add(otp(i, i % 6 == 0 ? now : now.minusHours(1).minusSeconds(i)));
+		}
+		otpRepo.saveAll(otps);
+
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		OtpPurgeService purgeService = new OtpPurgeService(otpRepo, leaseService, transactionManager, meterRegistry,
+				10, 2, 0, 30, 300);
+		LocalDateTime cutoff = now.minusMinutes(30);
+
+		assertEquals(20, purgeService.purgeBefore(cutoff));
+		assertEquals(2, meterRegistry.get("otp.purge.batch").timer().count());
+		assertEquals(5, purgeService.purgeBefore(cutoff));
+		assertEquals(0, purgeService.purgeBefore(cutoff));
+
+		assertEquals(5, otpRepo.count());
+		assertTrue(otpRepo.findAll().stream().allMatch(otp -> otp.getCreatedAt().isAfter(cutoff)));
+	}
+
+	private static Otp otp(int i, LocalDateTime createdAt) {
+		Otp otp = new Otp();
+		otp.setUserEmail("user" + i + "@crm.test");
+		otp.setUserRole("Executive");
+		otp.setOtp(100000L + i);
+		otp.setCreatedAt(createdAt);
+		return otp;
+	}
+}
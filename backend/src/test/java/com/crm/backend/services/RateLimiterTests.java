@@ -0,0 +1,37 @@
+package com.crm.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTests {
+
+	@Test
+	void allowsBurstThenRejectsWithRetryDelay() {
+		RateLimiter limiter = new RateLimiter(3, Duration.ofMinutes(15), 100);
+
+		assertEquals(0, limiter.tryAcquire("a@crm.test"));
+		assertEquals(0, limiter.tryAcquire("a@crm.test"));
+		assertEquals(0, limiter.tryAcquire("a@crm.test"));
+
+		long retryAfter = limiter.tryAcquire("a@crm.test");
+		assertTrue(retryAfter > Duration.ofMinutes(4).toMillis() && retryAfter <= Duration.ofMinutes(5).toMillis());
+		assertEquals(0, limiter.tryAcquire("b@crm.test"));
+	}
+
+	@Test
+	void refillsOneTokenPerInterval() throws InterruptedException {
+		RateLimiter limiter = new RateLimiter(2, Duration.ofMillis(200), 100);
+
+		assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+		assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+		assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+
+		Thread.sleep(150);
+		assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+		assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+	}
+}
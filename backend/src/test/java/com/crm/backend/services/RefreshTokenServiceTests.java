@@ -0,0 +1,53 @@
+package com.crm.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.crm.backend.config.VerifiedTokenCache;
+import com.crm.backend.dto.TokenPair;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class RefreshTokenServiceTests {
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@Autowired
+	private VerifiedTokenCache verifiedTokenCache;
+
+	@Test
+	void rotatesRefreshTokenOnEveryExchange() {
+		TokenPair login = refreshTokenService.startSession("user@crm.test", Role.EXECUTIVE);
+
+		TokenPair first = refreshTokenService.refresh(login.refreshToken());
+		TokenPair second = refreshTokenService.refresh(first.refreshToken());
+
+		assertNotNull(verifiedTokenCache.authenticate(second.accessToken()));
+		assertTrue(!first.refreshToken().equals(second.refreshToken()));
+	}
+
+	@Test
+	void replayedRefreshTokenRevokesTheWholeSession() {
+		TokenPair login = refreshTokenService.startSession("victim@crm.test", Role.EXECUTIVE);
+		TokenPair rotated = refreshTokenService.refresh(login.refreshToken());
+		assertNotNull(verifiedTokenCache.authenticate(rotated.accessToken()));
+
+		assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(login.refreshToken()));
+
+		assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(rotated.refreshToken()));
+		assertNull(verifiedTokenCache.authenticate(rotated.accessToken()));
+	}
+
+	@Test
+	void rejectsAccessTokenAsRefreshToken() {
+		TokenPair login = refreshTokenService.startSession("user@crm.test", Role.EXECUTIVE);
+
+		assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(login.accessToken()));
+	}
+}
@@ -0,0 +1,116 @@
+package com.crm.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.crm.backend.dto.UserImportResult;
+import com.crm.backend.repository.UserRepo;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+	"crm.user-import.batch-size=100"
+})
+class UserImportServiceTests {
+
+	@Autowired
+	private UserImportService userImportService;
+
+	@Autowired
+	private UserLookupCache userLookupCache;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void importsCsvAcrossBatchesAndSkipsDuplicates() {
+		assertFalse(userLookupCache.exists("rep0@crm.test", "Sales Representative"));
+
+		StringBuilder csv = new StringBuilder("user_email,user_name,user_role,department\n");
+		for (int i = 0; i < 1000; i++) {
+			csv.append("rep").append(i).append("@crm.test,\"Rep, ").append(i).append("\",Sales Representative,Sales\n");
+		}
+		// Repeated in a later batch, bad role, bad email
+		csv.append("rep5@crm.test,Rep 5,Sales Representative,Sales\n");
+		csv.append("rep1@crm.test,Rep 1,Janitor,Sales\n");
+		csv.append("not-an-email,Someone,Executive,\n");
+
+		UserImportResult result = userImportService.importCsv(stream(csv.toString()));
+
+		assertEquals(1003, result.total());
+		assertEquals(1000, result.imported());
+		assertEquals(1, result.duplicates());
+		assertEquals(2, result.rejected());
+		assertEquals(1003, result.errors().get(0).line());
+		assertTrue(userLookupCache.exists("rep0@crm.test", "Sales Representative"));
+		assertEquals("Rep, 7", userRepo.findByUserEmailAndUserRole("rep7@crm.test", "Sales Representative")
+				.orElseThrow().getUserName());
+
+		UserImportResult again = userImportService.importCsv(stream(csv.toString()));
+		assertEquals(0, again.imported());
+		assertEquals(1001, again.duplicates());
+	}
+
+	@Test
+	void importsNdjsonAndReportsMalformedLines() {
+		String ndjson = """
+				{"user_name":"Ana","user_email":"ana@crm.test","user_role":"Executive"}
+				{"user_name":"Ana","user_email":"ana@crm.test","user_role":"Sales Manager"}
+				{"user_email":"broken@crm.test",
+				{"user_name":"Bo","user_role":"Executive"}
+				""";
+
+		UserImportResult result = userImportService.importNdjson(stream(ndjson));
+
+		assertEquals(2, result.imported());
+		assertEquals(2, result.rejected());
+		assertEquals(3, result.errors().get(0).line());
+		assertEquals("Email is required", result.errors().get(1).message());
+	}
+
+	@Test
+	void lowercasesEmailsAndCountsRowsTheDatabaseAlreadyHolds() {
+		// Written behind the import's back, as a concurrent import would
+		jdbcTemplate.update("INSERT INTO user_data (user_name, user_email, user_role) VALUES (?, ?, ?)",
+				"Raced", "raced@crm.test", "Executive");
+
+		UserImportResult result = userImportService.importCsv(stream("""
+				user_email,user_name,user_role
+				Mixed@CRM.test,Mixed,Executive
+				mixed@crm.test,Mixed again,Executive
+				raced@crm.test,Raced again,Executive
+				"""));
+
+		assertEquals(1, result.imported());
+		assertEquals(2, result.duplicates());
+		assertEquals("Mixed", userRepo.findByUserEmailAndUserRole("mixed@crm.test", "Executive")
+				.orElseThrow().getUserName());
+		assertEquals("Raced", userRepo.findByUserEmailAndUserRole("raced@crm.test", "Executive")
+				.orElseThrow().getUserName());
+		assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(
+				"INSERT INTO user_data (user_email, user_role) VALUES (?, ?)", "mixed@crm.test", "Executive"));
+	}
+
+	@Test
+	void rejectsCsvWithoutRequiredHeader() {
+		assertThrows(InvalidImportException.class,
+				() -> userImportService.importCsv(stream("name,email\nA,a@crm.test\n")));
+	}
+
+	private static InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,77 @@
+package com.crm.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.crm.backend.dto.UserPage;
+import com.crm.backend.dto.UserSummary;
+import com.crm.backend.entity.User;
+import com.crm.backend.repository.UserRepo;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class UserListingServiceTests {
+
+	@Autowired
+	private UserListingService userListingService;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@BeforeEach
+	void seed() {
+		userRepo.deleteAll();
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < 95; i++) {
+			users.add(new User(null, "User " + i, "user" + i + "@crm.test",
+					i % 2 == 0 ? "Executive" : "Sales Manager", i % 3 == 0 ? "Sales" : "Support", null, null));
+		}
+		userRepo.saveAll(users);
+	}
+
+	@Test
+	void walksEveryFilteredRowExactlyOnce() {
+		List<UserSummary> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			UserPage page = userListingService.list("Executive", "Sales", cursor, 5);
+			seen.addAll(page.users());
+			cursor = page.nextCursor();
+			pages++;
+		} while (cursor != null);
+
+		// i % 6 == 0 for i < 95
+		assertEquals(16, seen.size());
+		assertEquals(4, pages);
+		for (int i = 1; i < seen.size(); i++) {
+			assertTrue(seen.get(i - 1).userId() < seen.get(i).userId());
+		}
+		assertTrue(seen.stream().allMatch(u -> "Executive".equals(u.userRole()) && "Sales".equals(u.department())));
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		UserPage page = userListingService.list(null, null, null, 100);
+
+		assertEquals(95, page.users().size());
+		assertNull(page.nextCursor());
+	}
+
+	@Test
+	void rejectsCursorUsedWithOtherFilters() {
+		String cursor = userListingService.list("Executive", null, null, 5).nextCursor();
+
+		assertThrows(IllegalArgumentException.class, () -> userListingService.list("Sales Manager", null, cursor, 5));
+		assertThrows(IllegalArgumentException.class, () -> userListingService.list(null, null, "not-a-cursor", 5));
+	}
+}
@@ -0,0 +1,81 @@
+package com.crm.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crm.backend.entity.User;
+import com.crm.backend.repository.UserRepo;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class UserLookupCacheTests {
+
+	@Autowired
+	private UserLookupCache userLookupCache;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void unknownUsersAreRememberedForTheNegativeTtl() throws Exception {
+		UserLookupCache cache = new UserLookupCache(userRepo, transactionManager, new SimpleMeterRegistry(),
+				100, 60, 1, false, "");
+		assertFalse(cache.exists("late@crm.test", "Executive"));
+
+		// Written without the entity listener, so nothing evicts the cached miss
+		insertDirectly("late@crm.test");
+		assertFalse(cache.exists("late@crm.test", "Executive"));
+
+		Thread.sleep(1100);
+		assertTrue(cache.exists("late@crm.test", "Executive"));
+	}
+
+	@Test
+	void committedChangesEvictTheCachedAnswer() {
+		assertFalse(userLookupCache.exists("new@crm.test", "Executive"));
+
+		User user = new TransactionTemplate(transactionManager).execute(status -> {
+			User saved = userRepo.save(new User(null, "New", "new@crm.test", "Executive", "Sales", null, null));
+			// Not evicted before the commit
+			assertFalse(userLookupCache.exists("new@crm.test", "Executive"));
+			return saved;
+		});
+		assertTrue(userLookupCache.exists("new@crm.test", "Executive"));
+
+		userRepo.delete(user);
+		assertFalse(userLookupCache.exists("new@crm.test", "Executive"));
+	}
+
+	@Test
+	void rolledBackChangesLeaveTheCacheAlone() {
+		assertFalse(userLookupCache.exists("ghost@crm.test", "Executive"));
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			userRepo.save(new User(null, "Ghost", "ghost@crm.test", "Executive", "Sales", null, null));
+			status.setRollbackOnly();
+		});
+		// Only an eviction by the rollback would let this row be seen within the negative TTL
+		insertDirectly("ghost@crm.test");
+
+		assertFalse(userLookupCache.exists("ghost@crm.test", "Executive"));
+	}
+
+	private void insertDirectly(String email) {
+		jdbcTemplate.update("INSERT INTO user_data (user_name, user_email, user_role) VALUES (?, ?, ?)",
+				"Direct", email, "Executive");
+	}
+}